@@ -1,8 +1,6 @@
 package com.maxleiter.tilefinder;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
@@ -34,6 +32,16 @@ public class Config {
                         .translation("tilefinder.configuration.enableBeam")
                         .define("enableBeam", true);
 
+        public static final ModConfigSpec.IntValue HIGHLIGHT_TARGET_LIMIT = BUILDER
+                        .comment("Maximum number of blocks highlighted at once; the nearest ones are kept")
+                        .translation("tilefinder.configuration.highlightTargetLimit")
+                        .defineInRange("highlightTargetLimit", 256, 1, 4096);
+
+        public static final ModConfigSpec.IntValue HIGHLIGHT_BEAM_COUNT = BUILDER
+                        .comment("Number of nearest highlighted blocks that get a beam")
+                        .translation("tilefinder.configuration.highlightBeamCount")
+                        .defineInRange("highlightBeamCount", 3, 0, 16);
+
         // Color settings
         public static final ModConfigSpec.IntValue HELIX_COLOR_1_RED = BUILDER
                         .comment("Red component of first helix strand color (0-255)")
@@ -71,9 +79,9 @@ public class Config {
                         .translation("tilefinder.configuration.defaultRadius")
                         .defineInRange("defaultRadius", 24, 1, 64);
 
-        // Favorites
+        // Legacy favorites, migrated into tilefinder-favorites.dat on first load
         public static final ModConfigSpec.ConfigValue<List<? extends String>> FAVORITES = BUILDER
-                        .comment("List of favorite tile entity IDs")
+                        .comment("Legacy list of favorite positions; moved to tilefinder-favorites.dat on first use")
                         .translation("tilefinder.configuration.favorites")
                         .defineListAllowEmpty(List.of("favorites"), () -> List.of("minecraft:chest"),
                                         obj -> obj instanceof String);
@@ -85,6 +93,8 @@ public class Config {
         public static double helixSpeed = 0.5;
         public static double arcScale = 5.0;
         public static boolean enableBeam = true;
+        public static int highlightTargetLimit = 256;
+        public static int highlightBeamCount = 3;
         public static int helixColor1Red = 180;
         public static int helixColor1Green = 60;
         public static int helixColor1Blue = 255;
@@ -92,14 +102,17 @@ public class Config {
         public static int helixColor2Green = 120;
         public static int helixColor2Blue = 255;
         public static int defaultRadius = 24;
-        public static Set<String> favorites = new HashSet<>();
 
         @SubscribeEvent
         public static void onLoad(ModConfigEvent event) {
+                if (event.getConfig().getSpec() != SPEC)
+                        return;
                 helixRadius = HELIX_RADIUS.get();
                 helixSpeed = HELIX_SPEED.get();
                 arcScale = ARC_SCALE.get();
                 enableBeam = ENABLE_BEAM.get();
+                highlightTargetLimit = HIGHLIGHT_TARGET_LIMIT.get();
+                highlightBeamCount = HIGHLIGHT_BEAM_COUNT.get();
                 helixColor1Red = HELIX_COLOR_1_RED.get();
                 helixColor1Green = HELIX_COLOR_1_GREEN.get();
                 helixColor1Blue = HELIX_COLOR_1_BLUE.get();
@@ -108,15 +121,7 @@ public class Config {
                 helixColor2Blue = HELIX_COLOR_2_BLUE.get();
                 defaultRadius = DEFAULT_RADIUS.get();
 
-                // Load favorites
-                favorites.clear();
-                favorites.addAll(FAVORITES.get());
-
                 System.out.println("TileFinder Config loaded: enableBeam=" + enableBeam + ", arcScale="
                                 + arcScale + ", helixRadius=" + helixRadius);
         }
-
-        public static void saveFavorites() {
-                FAVORITES.set(List.copyOf(favorites));
-        }
 }
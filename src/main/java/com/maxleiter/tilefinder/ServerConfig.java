@@ -0,0 +1,65 @@
+package com.maxleiter.tilefinder;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.fml.event.config.ModConfigEvent;
+import net.neoforged.neoforge.common.ModConfigSpec;
+
+@EventBusSubscriber(modid = TileFinder.MODID)
+public class ServerConfig {
+        private static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
+
+        // Scan settings
+        public static final ModConfigSpec.LongValue SCAN_TICK_BUDGET_NANOS = BUILDER
+                        .comment("Maximum time in nanoseconds a /tilefinder scan may spend per server tick")
+                        .translation("tilefinder.configuration.scanTickBudgetNanos")
+                        .defineInRange("scanTickBudgetNanos", 2_000_000L, 100_000L, 50_000_000L);
+
+        public static final ModConfigSpec.BooleanValue USE_INDEX = BUILDER
+                        .comment("Answer /tilefinder from the in-memory block entity index instead of scanning chunks")
+                        .translation("tilefinder.configuration.useIndex")
+                        .define("useIndex", true);
+
+        public static final ModConfigSpec.IntValue AUDIT_THREADS = BUILDER
+                        .comment("Worker threads used by /tilefinder audit to read region files")
+                        .translation("tilefinder.configuration.auditThreads")
+                        .defineInRange("auditThreads", 4, 1, 64);
+
+        // Path highlight settings
+        public static final ModConfigSpec.IntValue PARTICLE_PACKET_BUDGET = BUILDER
+                        .comment("Maximum particle packets sent per tick across all path highlights")
+                        .translation("tilefinder.configuration.particlePacketBudget")
+                        .defineInRange("particlePacketBudget", 1024, 16, 4096);
+
+        public static final ModConfigSpec.IntValue PARTICLE_RENDER_RANGE = BUILDER
+                        .comment("Path particles further than this many blocks from the player are not sent")
+                        .translation("tilefinder.configuration.particleRenderRange")
+                        .defineInRange("particleRenderRange", 64, 8, 512);
+
+        public static final ModConfigSpec.IntValue MAX_PATH_SAMPLES = BUILDER
+                        .comment("Maximum particles in one emission of a path highlight")
+                        .translation("tilefinder.configuration.maxPathSamples")
+                        .defineInRange("maxPathSamples", 192, 16, 1024);
+
+        public static final ModConfigSpec SPEC = BUILDER.build();
+
+        // Runtime values with defaults
+        public static long scanTickBudgetNanos = 2_000_000L;
+        public static boolean useIndex = true;
+        public static int auditThreads = 4;
+        public static int particlePacketBudget = 1024;
+        public static int particleRenderRange = 64;
+        public static int maxPathSamples = 192;
+
+        @SubscribeEvent
+        public static void onLoad(ModConfigEvent event) {
+                if (event.getConfig().getSpec() != SPEC || event instanceof ModConfigEvent.Unloading)
+                        return;
+                scanTickBudgetNanos = SCAN_TICK_BUDGET_NANOS.get();
+                useIndex = USE_INDEX.get();
+                auditThreads = AUDIT_THREADS.get();
+                particlePacketBudget = PARTICLE_PACKET_BUDGET.get();
+                particleRenderRange = PARTICLE_RENDER_RANGE.get();
+                maxPathSamples = MAX_PATH_SAMPLES.get();
+        }
+}
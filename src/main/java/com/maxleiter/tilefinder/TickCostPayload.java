@@ -0,0 +1,44 @@
+package com.maxleiter.tilefinder;
+
+import com.maxleiter.tilefinder.client.ClientTickCosts;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+
+/**
+ * Server → client: average tick cost in microseconds for block entities near the player, from the last
+ * finished tick profiler window. The channel is optional so vanilla clients can still join.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID)
+public record TickCostPayload(ResourceLocation dimension, long[] positions, float[] micros) implements CustomPacketPayload {
+    public static final Type<TickCostPayload> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(TileFinder.MODID, "tick_costs"));
+
+    public static final StreamCodec<FriendlyByteBuf, TickCostPayload> STREAM_CODEC = StreamCodec.of(
+            (buf, payload) -> {
+                buf.writeResourceLocation(payload.dimension());
+                buf.writeLongArray(payload.positions());
+                for (float micros : payload.micros()) buf.writeFloat(micros);
+            },
+            buf -> {
+                ResourceLocation dimension = buf.readResourceLocation();
+                long[] positions = buf.readLongArray();
+                float[] micros = new float[positions.length];
+                for (int i = 0; i < micros.length; i++) micros[i] = buf.readFloat();
+                return new TickCostPayload(dimension, positions, micros);
+            });
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    @SubscribeEvent
+    public static void onRegisterPayloads(RegisterPayloadHandlersEvent event) {
+        // the lambda keeps the client class from being loaded on a dedicated server
+        event.registrar("1").optional().playToClient(TYPE, STREAM_CODEC, (payload, context) -> ClientTickCosts.accept(payload));
+    }
+}
@@ -18,5 +18,6 @@ public class TileFinder {
     public TileFinder(IEventBus modEventBus, ModContainer modContainer) {
         // Register the configuration
         modContainer.registerConfig(ModConfig.Type.CLIENT, Config.SPEC);
+        modContainer.registerConfig(ModConfig.Type.SERVER, ServerConfig.SPEC);
     }
 }
@@ -0,0 +1,137 @@
+package com.maxleiter.tilefinder.client;
+
+/**
+ * Vertex positions for the double-helix beam, computed into reusable primitive buffers.
+ * <p>
+ * The arc's base positions and the beam's perpendicular frame depend only on the end points and the arc
+ * and speed settings, so they are cached and rebuilt only when one of those changes. Each frame then
+ * rotates the cached per-sample helix angles by the time phase and adds the result to the base positions;
+ * that is one sin/cos per frame plus a few multiply-adds per sample. Once the buffers have grown to the
+ * longest beam seen, building a frame allocates nothing.
+ */
+final class BeamGeometry {
+    // path cache key
+    private double sx = Double.NaN, sy, sz, ex, ey, ez;
+    private double cachedSpeed = Double.NaN;
+    private double cachedArcScale = Double.NaN;
+
+    // cached path: perpendicular frame, base positions (xyz triples) and helix angle per sample
+    private double p1x, p1y, p1z, p2x, p2y, p2z;
+    private double[] base = new double[0];
+    private double[] cosTable = new double[0];
+    private double[] sinTable = new double[0];
+    private int pathPoints;
+
+    // xyz triples for each strand, camera-relative, points entries long
+    float[] strand1 = new float[0];
+    float[] strand2 = new float[0];
+    int points;
+
+    /** Build both strands from start to end in world space, animated to the given time in seconds. */
+    void build(double startX, double startY, double startZ, double endX, double endY, double endZ,
+            double helixRadius, double helixSpeed, double arcScale, double time,
+            double cameraX, double cameraY, double cameraZ) {
+        if (startX != sx || startY != sy || startZ != sz || endX != ex || endY != ey || endZ != ez
+                || helixSpeed != cachedSpeed || arcScale != cachedArcScale) {
+            rebuildPath(startX, startY, startZ, endX, endY, endZ, helixSpeed, arcScale);
+        }
+        points = pathPoints;
+        if (points == 0)
+            return;
+        if (strand1.length < points * 3) {
+            strand1 = new float[points * 3];
+            strand2 = new float[points * 3];
+        }
+
+        double phase = time * 2;
+        double cosPhase = Math.cos(phase);
+        double sinPhase = Math.sin(phase);
+        for (int i = 0; i < points; i++) {
+            // rotate the cached angle by the phase; the second strand sits 180 degrees opposite
+            double c = (cosTable[i] * cosPhase - sinTable[i] * sinPhase) * helixRadius;
+            double s = (sinTable[i] * cosPhase + cosTable[i] * sinPhase) * helixRadius;
+            double ox = p1x * c + p2x * s;
+            double oy = p1y * c + p2y * s;
+            double oz = p1z * c + p2z * s;
+
+            int k = i * 3;
+            double bx = base[k] - cameraX;
+            double by = base[k + 1] - cameraY;
+            double bz = base[k + 2] - cameraZ;
+            strand1[k] = (float) (bx + ox);
+            strand1[k + 1] = (float) (by + oy);
+            strand1[k + 2] = (float) (bz + oz);
+            strand2[k] = (float) (bx - ox);
+            strand2[k + 1] = (float) (by - oy);
+            strand2[k + 2] = (float) (bz - oz);
+        }
+    }
+
+    private void rebuildPath(double startX, double startY, double startZ, double endX, double endY, double endZ,
+            double helixSpeed, double arcScale) {
+        sx = startX;
+        sy = startY;
+        sz = startZ;
+        ex = endX;
+        ey = endY;
+        ez = endZ;
+        cachedSpeed = helixSpeed;
+        cachedArcScale = arcScale;
+
+        double dx = endX - startX;
+        double dy = endY - startY;
+        double dz = endZ - startZ;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (distance < 1.0e-6) {
+            pathPoints = 0;
+            return;
+        }
+        double nx = dx / distance;
+        double ny = dy / distance;
+        double nz = dz / distance;
+
+        // first perpendicular: direction x up, or direction x east when the beam is nearly vertical
+        if (Math.abs(ny) > 0.99) {
+            p1x = 0;
+            p1y = nz;
+            p1z = -ny;
+        } else {
+            p1x = -nz;
+            p1y = 0;
+            p1z = nx;
+        }
+        double len1 = Math.sqrt(p1x * p1x + p1y * p1y + p1z * p1z);
+        p1x /= len1;
+        p1y /= len1;
+        p1z /= len1;
+        // second perpendicular: direction x first perpendicular
+        p2x = ny * p1z - nz * p1y;
+        p2y = nz * p1x - nx * p1z;
+        p2z = nx * p1y - ny * p1x;
+        double len2 = Math.sqrt(p2x * p2x + p2y * p2y + p2z * p2z);
+        p2x /= len2;
+        p2y /= len2;
+        p2z /= len2;
+
+        int segments = Math.max(30, (int) (distance * 6));
+        int count = segments + 1;
+        if (cosTable.length < count) {
+            cosTable = new double[count];
+            sinTable = new double[count];
+            base = new double[count * 3];
+        }
+        double arcHeight = Math.min(arcScale, distance / 3);
+        double rotations = helixSpeed * 3; // number of full rotations along the beam
+        for (int i = 0; i <= segments; i++) {
+            double t = (double) i / segments;
+            double angle = t * Math.PI * 2 * rotations;
+            cosTable[i] = Math.cos(angle);
+            sinTable[i] = Math.sin(angle);
+            int k = i * 3;
+            base[k] = startX + dx * t;
+            base[k + 1] = startY + dy * t + Math.sin(Math.PI * t) * arcHeight;
+            base[k + 2] = startZ + dz * t;
+        }
+        pathPoints = count;
+    }
+}
@@ -0,0 +1,43 @@
+package com.maxleiter.tilefinder.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.maxleiter.tilefinder.TileFinder;
+
+import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Block;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.RegisterClientReloadListenersEvent;
+
+/**
+ * Display metadata for a block type, computed once and shared by every list row of that type.
+ * <p>
+ * The cache is safe to read from the background scan and is cleared on every client resource reload, which
+ * also covers language changes.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID, value = Dist.CLIENT)
+record BlockInfo(String displayName, ItemStack icon, String namespace, String modName) {
+    private static final Map<Block, BlockInfo> CACHE = new ConcurrentHashMap<>();
+
+    static BlockInfo of(Block block) {
+        return CACHE.computeIfAbsent(block, BlockInfo::compute);
+    }
+
+    private static BlockInfo compute(Block block) {
+        Item item = block.asItem();
+        ItemStack icon = item == ItemStack.EMPTY.getItem() ? ItemStack.EMPTY : new ItemStack(item);
+        String displayName = icon.isEmpty() ? block.getName().getString() : icon.getHoverName().getString();
+        String namespace = block.builtInRegistryHolder().key().location().getNamespace();
+        return new BlockInfo(displayName, icon, namespace, GuiUtils.lookupModName(namespace));
+    }
+
+    @SubscribeEvent
+    public static void onRegisterReloadListeners(RegisterClientReloadListenersEvent event) {
+        event.registerReloadListener((ResourceManagerReloadListener) resourceManager -> CACHE.clear());
+    }
+}
@@ -0,0 +1,153 @@
+package com.maxleiter.tilefinder.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.maxleiter.tilefinder.TileFinder;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+/**
+ * Tracks the chunks the client currently has loaded so the TileFinder screen can read their block entities
+ * without going through {@code getChunk} and copying each chunk's position set.
+ * <p>
+ * Chunks are added and removed from client chunk load/unload events. Block updates are applied by the
+ * client to the same chunk objects, so the block-entity maps read here are always current; what needs
+ * tracking is when they change. While a screen watches an area (from its last {@link #snapshot} until
+ * {@link #unwatch}), the block entity count of the chunks in that area is compared every client tick, and
+ * {@link #version()} changes when it does: a machine placed or broken, or a chunk holding block entities
+ * streaming in or out. It also changes with the tracked level. Chunks outside the area leave it alone.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID, value = Dist.CLIENT)
+public final class ClientBlockEntityTracker {
+    private ClientBlockEntityTracker() {
+    }
+
+    private static final Long2ObjectMap<LevelChunk> CHUNKS = new Long2ObjectOpenHashMap<>();
+    private static LevelAccessor trackedLevel;
+    private static int version;
+    // chunk bounds of the last snapshot and how many block entities they held; an empty range watches nothing
+    private static int watchedMinX = 1, watchedMaxX = 0, watchedMinZ = 1, watchedMaxZ = 0;
+    private static int watchedCount;
+
+    static int version() {
+        return version;
+    }
+
+    /** Block entities of one chunk, copied so they can be read off the render thread. */
+    record ChunkSnapshot(long[] positions, BlockState[] states) {
+    }
+
+    /**
+     * Copy the block entities of every tracked chunk that overlaps radius around center. Only positions and
+     * states are copied; radius filtering and everything derived from the states is left to the caller.
+     */
+    static List<ChunkSnapshot> snapshot(LevelAccessor level, BlockPos center, int radius) {
+        List<ChunkSnapshot> result = new ArrayList<>();
+        if (level != trackedLevel)
+            return result;
+
+        int chunkX = center.getX() >> 4;
+        int chunkZ = center.getZ() >> 4;
+        int chunkRadius = (radius >> 4) + 1;
+        watchedMinX = chunkX - chunkRadius;
+        watchedMaxX = chunkX + chunkRadius;
+        watchedMinZ = chunkZ - chunkRadius;
+        watchedMaxZ = chunkZ + chunkRadius;
+        watchedCount = countWatched();
+        for (int x = chunkX - chunkRadius; x <= chunkX + chunkRadius; x++) {
+            for (int z = chunkZ - chunkRadius; z <= chunkZ + chunkRadius; z++) {
+                LevelChunk chunk = CHUNKS.get(ChunkPos.asLong(x, z));
+                if (chunk == null || chunk.getBlockEntities().isEmpty())
+                    continue;
+                Collection<BlockEntity> blockEntities = chunk.getBlockEntities().values();
+                int n = blockEntities.size();
+                long[] positions = new long[n];
+                BlockState[] states = new BlockState[n];
+                int i = 0;
+                for (BlockEntity be : blockEntities) {
+                    positions[i] = be.getBlockPos().asLong();
+                    states[i] = be.getBlockState();
+                    i++;
+                }
+                result.add(new ChunkSnapshot(positions, states));
+            }
+        }
+        return result;
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (!event.getLevel().isClientSide() || !(event.getChunk() instanceof LevelChunk chunk))
+            return;
+        if (event.getLevel() != trackedLevel) {
+            CHUNKS.clear();
+            trackedLevel = event.getLevel();
+            version++;
+        }
+        CHUNKS.put(chunk.getPos().toLong(), chunk);
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getLevel() != trackedLevel)
+            return;
+        long key = event.getChunk().getPos().toLong();
+        if (CHUNKS.get(key) == event.getChunk()) {
+            CHUNKS.remove(key);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() != trackedLevel)
+            return;
+        CHUNKS.clear();
+        trackedLevel = null;
+        version++;
+    }
+
+    /** Stop comparing the watched area each tick, until the next {@link #snapshot}. */
+    static void unwatch() {
+        watchedMinX = 1;
+        watchedMaxX = 0;
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(ClientTickEvent.Post event) {
+        if (watchedMinX > watchedMaxX || trackedLevel == null)
+            return;
+        int count = countWatched();
+        if (count != watchedCount) {
+            watchedCount = count;
+            version++;
+        }
+    }
+
+    // one map size read per chunk, so this stays cheap at the largest radius
+    private static int countWatched() {
+        int count = 0;
+        for (int x = watchedMinX; x <= watchedMaxX; x++) {
+            for (int z = watchedMinZ; z <= watchedMaxZ; z++) {
+                LevelChunk chunk = CHUNKS.get(ChunkPos.asLong(x, z));
+                if (chunk != null)
+                    count += chunk.getBlockEntities().size();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,108 @@
+package com.maxleiter.tilefinder.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Turns a {@link ClientBlockEntityTracker} snapshot into {@link TileEntry} rows on a background executor.
+ * <p>
+ * Rows are published in batches that the screen drains on its own tick, so a large radius fills the list
+ * progressively instead of stalling a frame. A cancelled scan stops at the next chunk boundary and
+ * publishes nothing further.
+ */
+final class ClientScan {
+    private static final int BATCH_SIZE = 256;
+
+    private final List<ClientBlockEntityTracker.ChunkSnapshot> chunks;
+    private final BlockPos center;
+    private final Vec3 playerVec;
+    private final int radius;
+    private final Queue<List<TileEntry>> batches = new ConcurrentLinkedQueue<>();
+    private volatile int scannedChunks;
+    private volatile boolean finished;
+    private volatile boolean cancelled;
+
+    private ClientScan(List<ClientBlockEntityTracker.ChunkSnapshot> chunks, BlockPos center, Vec3 playerVec,
+            int radius) {
+        this.chunks = chunks;
+        this.center = center;
+        this.playerVec = playerVec;
+        this.radius = radius;
+    }
+
+    static ClientScan start(List<ClientBlockEntityTracker.ChunkSnapshot> chunks, BlockPos center, Vec3 playerVec,
+            int radius) {
+        ClientScan scan = new ClientScan(chunks, center, playerVec, radius);
+        CompletableFuture.runAsync(scan::run, Util.backgroundExecutor())
+                .whenComplete((ignored, error) -> {
+                    if (error != null)
+                        error.printStackTrace();
+                    scan.finished = true;
+                });
+        return scan;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    /** True once every batch has been published; batches may still be waiting in {@link #poll}. */
+    boolean isFinished() {
+        return finished;
+    }
+
+    int scannedChunks() {
+        return scannedChunks;
+    }
+
+    int totalChunks() {
+        return chunks.size();
+    }
+
+    /** Next published batch, or null if none is waiting. */
+    List<TileEntry> poll() {
+        return batches.poll();
+    }
+
+    private void run() {
+        // multiblock parts are listed once per primary position, whichever part is reached first
+        LongSet seenPrimaries = new LongOpenHashSet();
+        long radiusSq = (long) radius * radius;
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        List<TileEntry> batch = new ArrayList<>();
+        for (ClientBlockEntityTracker.ChunkSnapshot chunk : chunks) {
+            if (cancelled)
+                return;
+            for (int i = 0; i < chunk.positions().length; i++) {
+                long packed = chunk.positions()[i];
+                if (cursor.set(packed).distSqr(center) > radiusSq)
+                    continue;
+                BlockState state = chunk.states()[i];
+                Block block = state.getBlock();
+                MultiblockResolvers.Resolver resolver = MultiblockResolvers.forBlock(block);
+                if (resolver != null && !seenPrimaries.add(resolver.primary(packed, state)))
+                    continue;
+                BlockInfo.of(block); // resolve names and icons here rather than on the render thread
+                batch.add(new TileEntry(BlockPos.of(packed), block, playerVec));
+                if (batch.size() >= BATCH_SIZE) {
+                    batches.add(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            scannedChunks++;
+        }
+        if (!batch.isEmpty() && !cancelled)
+            batches.add(batch);
+    }
+}
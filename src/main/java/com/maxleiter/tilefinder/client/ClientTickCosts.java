@@ -0,0 +1,54 @@
+package com.maxleiter.tilefinder.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.maxleiter.tilefinder.TickCostPayload;
+import com.maxleiter.tilefinder.TileFinder;
+
+import it.unimi.dsi.fastutil.longs.Long2FloatMap;
+import it.unimi.dsi.fastutil.longs.Long2FloatMaps;
+import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+
+/**
+ * Block entity tick costs last sent by the server's tick profiler, per dimension, in microseconds per tick.
+ * Empty unless the server runs TileFinder and an operator has run {@code /tilefinder profile}.
+ * {@link #version()} changes whenever new costs arrive.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID, value = Dist.CLIENT)
+public final class ClientTickCosts {
+    private ClientTickCosts() {
+    }
+
+    private static final Map<ResourceLocation, Long2FloatMap> BY_DIMENSION = new HashMap<>();
+    private static int version;
+
+    public static void accept(TickCostPayload payload) {
+        Long2FloatMap costs = new Long2FloatOpenHashMap(payload.positions().length);
+        for (int i = 0; i < payload.positions().length; i++) {
+            costs.put(payload.positions()[i], payload.micros()[i]);
+        }
+        BY_DIMENSION.put(payload.dimension(), costs);
+        version++;
+    }
+
+    static int version() {
+        return version;
+    }
+
+    /** Costs by packed position; positions that were not sampled are missing. */
+    static Long2FloatMap costs(ResourceLocation dimension) {
+        return BY_DIMENSION.getOrDefault(dimension, Long2FloatMaps.EMPTY_MAP);
+    }
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        BY_DIMENSION.clear();
+        version++;
+    }
+}
@@ -0,0 +1,165 @@
+package com.maxleiter.tilefinder.client;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.maxleiter.tilefinder.Config;
+import com.maxleiter.tilefinder.TileFinder;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.fml.loading.FMLPaths;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.event.GameShuttingDownEvent;
+
+/**
+ * Favourite block positions, one set of packed {@link BlockPos#asLong} values per dimension.
+ * <p>
+ * Stored in {@code config/tilefinder-favorites.dat} as a compressed compound of long arrays keyed by
+ * dimension id. Toggles only mark the set dirty; it is written on an IO thread once no toggle has happened
+ * for {@link #SAVE_DELAY_TICKS} ticks, and flushed synchronously on shutdown. On first load, entries from
+ * the legacy {@code favorites} config list are migrated into the file.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID, value = Dist.CLIENT)
+public final class Favorites {
+    private Favorites() {
+    }
+
+    private static final int SAVE_DELAY_TICKS = 40;
+    private static final Map<ResourceKey<Level>, LongSet> BY_DIMENSION = new HashMap<>();
+    private static boolean loaded;
+    private static int dirtyTicks = -1;
+    private static CompletableFuture<Void> pendingSave = CompletableFuture.completedFuture(null);
+
+    static boolean contains(ResourceKey<Level> dimension, BlockPos pos) {
+        ensureLoaded();
+        LongSet set = BY_DIMENSION.get(dimension);
+        return set != null && set.contains(pos.asLong());
+    }
+
+    /** Flip the favourite state of pos and return the new state. */
+    static boolean toggle(ResourceKey<Level> dimension, BlockPos pos) {
+        ensureLoaded();
+        LongSet set = BY_DIMENSION.computeIfAbsent(dimension, k -> new LongOpenHashSet());
+        long packed = pos.asLong();
+        boolean added = set.add(packed);
+        if (!added)
+            set.remove(packed);
+        dirtyTicks = 0;
+        return added;
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(ClientTickEvent.Post event) {
+        if (dirtyTicks >= 0 && ++dirtyTicks >= SAVE_DELAY_TICKS) {
+            dirtyTicks = -1;
+            CompoundTag tag = toTag();
+            pendingSave = pendingSave.thenRunAsync(() -> write(tag), Util.ioPool());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onShutdown(GameShuttingDownEvent event) {
+        pendingSave.join();
+        if (dirtyTicks >= 0) {
+            dirtyTicks = -1;
+            write(toTag());
+        }
+    }
+
+    private static Path file() {
+        return FMLPaths.CONFIGDIR.get().resolve("tilefinder-favorites.dat");
+    }
+
+    private static void ensureLoaded() {
+        if (loaded)
+            return;
+        loaded = true;
+        Path file = file();
+        if (Files.exists(file)) {
+            try {
+                CompoundTag tag = NbtIo.readCompressed(file, NbtAccounter.unlimitedHeap());
+                for (String key : tag.getAllKeys()) {
+                    ResourceLocation id = ResourceLocation.tryParse(key);
+                    if (id != null && tag.contains(key, Tag.TAG_LONG_ARRAY)) {
+                        BY_DIMENSION.put(ResourceKey.create(Registries.DIMENSION, id),
+                                new LongOpenHashSet(tag.getLongArray(key)));
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+        migrateLegacy(Config.FAVORITES.get());
+    }
+
+    // legacy keys look like "minecraft:overworld:12:64:-40"
+    private static void migrateLegacy(List<? extends String> keys) {
+        int migrated = 0;
+        for (String key : keys) {
+            String[] parts = key.split(":");
+            if (parts.length < 4)
+                continue;
+            try {
+                int x = Integer.parseInt(parts[parts.length - 3]);
+                int y = Integer.parseInt(parts[parts.length - 2]);
+                int z = Integer.parseInt(parts[parts.length - 1]);
+                String dimension = String.join(":", Arrays.copyOf(parts, parts.length - 3));
+                ResourceLocation id = ResourceLocation.tryParse(dimension);
+                if (id == null)
+                    continue;
+                BY_DIMENSION.computeIfAbsent(ResourceKey.create(Registries.DIMENSION, id), k -> new LongOpenHashSet())
+                        .add(BlockPos.asLong(x, y, z));
+                migrated++;
+            } catch (NumberFormatException ignored) {
+                // not a position key
+            }
+        }
+        if (migrated > 0) {
+            dirtyTicks = 0;
+            Config.FAVORITES.set(List.of());
+        }
+    }
+
+    private static CompoundTag toTag() {
+        CompoundTag tag = new CompoundTag();
+        BY_DIMENSION.forEach((dimension, set) -> {
+            if (!set.isEmpty())
+                tag.put(dimension.location().toString(), new LongArrayTag(set.toLongArray()));
+        });
+        return tag;
+    }
+
+    private static void write(CompoundTag tag) {
+        Path file = file();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            NbtIo.writeCompressed(tag, tmp);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.maxleiter.tilefinder.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BedPart;
+import net.minecraft.world.level.block.state.properties.BlockStateProperties;
+import net.minecraft.world.level.block.state.properties.ChestType;
+import net.minecraft.world.level.block.state.properties.DoubleBlockHalf;
+
+/**
+ * Resolves the "primary" position of blocks that span several block entities, so the TileFinder list shows
+ * one row per logical container instead of one per part.
+ * <p>
+ * Double chests, beds and two-high blocks are recognised from their block-state properties, which also
+ * covers modded blocks that reuse those properties. Other multiblocks can register a resolver for their
+ * block class. The resolver for each block is picked once and cached, so a scan costs one state read per
+ * part. Lookups run on the background scan thread.
+ */
+public final class MultiblockResolvers {
+    private MultiblockResolvers() {
+    }
+
+    /** Returns the packed position of the part that represents the whole multiblock. */
+    @FunctionalInterface
+    public interface Resolver {
+        long primary(long pos, BlockState state);
+    }
+
+    private record Registration(Class<? extends Block> type, Resolver resolver) {
+    }
+
+    private static final Resolver NONE = (pos, state) -> pos;
+
+    private static final Resolver CHEST = (pos, state) -> {
+        ChestType type = state.getValue(BlockStateProperties.CHEST_TYPE);
+        if (type != ChestType.LEFT)
+            return pos;
+        // a LEFT half's partner is clockwise of its facing; the RIGHT half is the primary
+        return BlockPos.offset(pos, state.getValue(BlockStateProperties.HORIZONTAL_FACING).getClockWise());
+    };
+
+    private static final Resolver BED = (pos, state) -> state.getValue(BlockStateProperties.BED_PART) == BedPart.FOOT
+            ? BlockPos.offset(pos, state.getValue(BlockStateProperties.HORIZONTAL_FACING))
+            : pos;
+
+    private static final Resolver DOUBLE_HALF = (pos, state) -> state
+            .getValue(BlockStateProperties.DOUBLE_BLOCK_HALF) == DoubleBlockHalf.UPPER
+                    ? BlockPos.offset(pos, Direction.DOWN)
+                    : pos;
+
+    // copy-on-write, so pick() can iterate it inside computeIfAbsent without taking a lock
+    private static final List<Registration> REGISTRATIONS = new CopyOnWriteArrayList<>();
+    private static final Map<Block, Resolver> BY_BLOCK = new ConcurrentHashMap<>();
+
+    /** Register a resolver for a block class. It takes precedence over built-in and earlier resolvers. */
+    public static void register(Class<? extends Block> type, Resolver resolver) {
+        REGISTRATIONS.add(0, new Registration(type, resolver));
+        BY_BLOCK.clear();
+    }
+
+    /** The resolver for this block, or null if its block entities are always listed individually. */
+    static Resolver forBlock(Block block) {
+        Resolver resolver = BY_BLOCK.computeIfAbsent(block, MultiblockResolvers::pick);
+        return resolver == NONE ? null : resolver;
+    }
+
+    private static Resolver pick(Block block) {
+        for (Registration registration : REGISTRATIONS) {
+            if (registration.type().isInstance(block))
+                return registration.resolver();
+        }
+        BlockState state = block.defaultBlockState();
+        boolean horizontal = state.hasProperty(BlockStateProperties.HORIZONTAL_FACING);
+        if (horizontal && state.hasProperty(BlockStateProperties.CHEST_TYPE))
+            return CHEST;
+        if (horizontal && state.hasProperty(BlockStateProperties.BED_PART))
+            return BED;
+        if (state.hasProperty(BlockStateProperties.DOUBLE_BLOCK_HALF))
+            return DOUBLE_HALF;
+        return NONE;
+    }
+}
@@ -5,6 +5,7 @@ import com.maxleiter.tilefinder.TileFinder;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.client.renderer.LevelRenderer;
@@ -17,16 +18,51 @@ import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.client.event.RenderLevelStageEvent;
 import org.joml.Matrix4f;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Client-side highlight of one or more target blocks.
+ * <p>
+ * Targets are kept ordered by distance from the player and re-sorted only when the player moves to another
+ * block. Every target visible in the frustum gets a box, all drawn in one line batch; only the nearest
+ * {@link Config#highlightBeamCount} also get a helix beam.
+ */
 @EventBusSubscriber(modid = TileFinder.MODID, value = Dist.CLIENT)
 public class PathHighlighter {
-    private static BlockPos targetPos = null;
+    private record Target(BlockPos pos, AABB box) {
+    }
+
+    private static Target[] targets = new Target[0];
+    private static BlockPos sortedFrom = null;
+    private static BeamGeometry[] beams = new BeamGeometry[0];
 
     public static void setTarget(BlockPos pos) {
-        targetPos = pos;
+        setTargets(List.of(pos));
+    }
+
+    /** Highlight the given blocks, keeping the nearest {@link Config#highlightTargetLimit} of them. */
+    public static void setTargets(List<BlockPos> positions) {
+        Target[] all = new Target[positions.size()];
+        for (int i = 0; i < all.length; i++) {
+            BlockPos pos = positions.get(i).immutable();
+            all[i] = new Target(pos, new AABB(pos).inflate(0.02));
+        }
+        Minecraft mc = Minecraft.getInstance();
+        BlockPos from = mc.player != null ? mc.player.blockPosition() : BlockPos.ZERO;
+        sortByDistance(all, from);
+        targets = all.length > Config.highlightTargetLimit ? Arrays.copyOf(all, Config.highlightTargetLimit) : all;
+        sortedFrom = from;
     }
 
     public static void clear() {
-        targetPos = null;
+        targets = new Target[0];
+        sortedFrom = null;
+    }
+
+    private static void sortByDistance(Target[] toSort, BlockPos from) {
+        Arrays.sort(toSort, Comparator.comparingDouble(t -> t.pos().distSqr(from)));
     }
 
     @SubscribeEvent
@@ -35,7 +71,7 @@ public class PathHighlighter {
             return;
         }
 
-        if (targetPos == null) {
+        if (targets.length == 0) {
             return;
         }
 
@@ -44,123 +80,99 @@ public class PathHighlighter {
             return;
         }
 
+        BlockPos playerBlock = mc.player.blockPosition();
+        if (!playerBlock.equals(sortedFrom)) {
+            sortByDistance(targets, playerBlock);
+            sortedFrom = playerBlock;
+        }
+
         PoseStack poseStack = event.getPoseStack();
         MultiBufferSource.BufferSource bufferSource = mc.renderBuffers().bufferSource();
         Vec3 cameraPos = mc.gameRenderer.getMainCamera().getPosition();
+        Frustum frustum = event.getFrustum();
 
-        // Get player position and adjust start position to avoid blocking view
-        Vec3 playerPos = mc.player.getEyePosition();
-        Vec3 lookVec = mc.player.getLookAngle();
-
-        // Offset the start position by 2 blocks in front of the player and slightly to
-        // the side
-        double offsetDistance = 2.0;
-        double sideOffset = 0.5;
-        Vec3 rightVec = new Vec3(-lookVec.z, 0, lookVec.x).normalize();
-        Vec3 startPos = playerPos.add(lookVec.scale(offsetDistance)).add(rightVec.scale(sideOffset));
-
-        Vec3 endPos = Vec3.atCenterOf(targetPos);
-
-        // Render the highlight box
-        renderHighlightBox(poseStack, bufferSource, cameraPos, targetPos);
+        // Render every visible highlight box in one batch
+        VertexConsumer lines = bufferSource.getBuffer(RenderType.lines());
+        for (Target target : targets) {
+            if (frustum == null || frustum.isVisible(target.box())) {
+                renderHighlightBox(poseStack, lines, cameraPos, target.box());
+            }
+        }
+        bufferSource.endBatch(RenderType.lines());
+
+        // Render beams for the nearest targets
+        int beamCount = Math.min(Config.highlightBeamCount, targets.length);
+        if (Config.ENABLE_BEAM.get() && beamCount > 0) {
+            if (beams.length < beamCount) {
+                BeamGeometry[] grown = Arrays.copyOf(beams, beamCount);
+                for (int i = beams.length; i < beamCount; i++) {
+                    grown[i] = new BeamGeometry();
+                }
+                beams = grown;
+            }
 
-        // Render the beam
-        if (Config.ENABLE_BEAM.get()) {
-            renderBeam(poseStack, bufferSource, cameraPos, startPos, endPos);
+            // Get player position and adjust start position to avoid blocking view
+            Vec3 playerPos = mc.player.getEyePosition();
+            Vec3 lookVec = mc.player.getLookAngle();
+
+            // Offset the start position by 2 blocks in front of the player and slightly to
+            // the side
+            double offsetDistance = 2.0;
+            double sideOffset = 0.5;
+            Vec3 rightVec = new Vec3(-lookVec.z, 0, lookVec.x).normalize();
+            Vec3 startPos = playerPos.add(lookVec.scale(offsetDistance)).add(rightVec.scale(sideOffset));
+
+            RenderType strip = RenderType.debugLineStrip(2.0);
+            double margin = Config.arcScale + Config.helixRadius;
+            for (int i = 0; i < beamCount; i++) {
+                Vec3 endPos = Vec3.atCenterOf(targets[i].pos());
+                if (frustum != null && !frustum.isVisible(new AABB(startPos, endPos).inflate(margin))) {
+                    continue;
+                }
+                renderBeam(beams[i], poseStack, bufferSource, cameraPos, startPos, endPos);
+                // each beam is its own strip; flushing keeps it from being joined to the next one
+                bufferSource.endBatch(strip);
+            }
         }
 
         bufferSource.endBatch();
     }
 
-    private static void renderBeam(PoseStack poseStack, MultiBufferSource bufferSource, Vec3 cameraPos, Vec3 start,
-            Vec3 end) {
-        VertexConsumer consumer = bufferSource.getBuffer(RenderType.debugLineStrip(2.0));
-        Matrix4f matrix = poseStack.last().pose();
-
-        Vec3 relativeStart = start.subtract(cameraPos);
-        Vec3 relativeEnd = end.subtract(cameraPos);
-
-        // Calculate path parameters
-        Vec3 direction = relativeEnd.subtract(relativeStart);
-        double distance = direction.length();
-        Vec3 normalizedDir = direction.normalize();
-
-        // Create perpendicular vectors for the helix
-        // First perpendicular: cross with up vector if not parallel
-        Vec3 up = new Vec3(0, 1, 0);
-        Vec3 perpendicular1;
-        if (Math.abs(normalizedDir.dot(up)) > 0.99) {
-            // If direction is nearly vertical, use a different vector
-            perpendicular1 = normalizedDir.cross(new Vec3(1, 0, 0)).normalize();
-        } else {
-            perpendicular1 = normalizedDir.cross(up).normalize();
+    private static void renderBeam(BeamGeometry beam, PoseStack poseStack, MultiBufferSource bufferSource,
+            Vec3 cameraPos, Vec3 start, Vec3 end) {
+        beam.build(start.x, start.y, start.z, end.x, end.y, end.z,
+                Config.helixRadius, Config.helixSpeed, Config.arcScale, System.currentTimeMillis() / 1000.0,
+                cameraPos.x, cameraPos.y, cameraPos.z);
+        if (beam.points < 2) {
+            return;
         }
-        // Second perpendicular: cross direction with first perpendicular
-        Vec3 perpendicular2 = normalizedDir.cross(perpendicular1).normalize();
-
-        double helixRadius = Config.HELIX_RADIUS.get();
-        double helixSpeed = Config.HELIX_SPEED.get();
-        double arcScale = Config.ARC_SCALE.get();
-        double time = System.currentTimeMillis() / 1000.0;
-
-        // Number of segments for smooth curves
-        int segments = Math.max(30, (int) (distance * 6));
-
-        // Draw first helix strand as connected line segments
-        Vec3 prevPos1 = null;
-        Vec3 prevPos2 = null;
-
-        for (int i = 0; i <= segments; i++) {
-            double t = (double) i / segments;
-
-            // Create arc path
-            double arcHeight = Math.sin(Math.PI * t) * Math.min(arcScale, distance / 3);
-            Vec3 basePos = relativeStart.add(normalizedDir.scale(distance * t)).add(0, arcHeight, 0);
-
-            // Calculate helix rotation angle
-            double rotations = helixSpeed * 3; // Number of full rotations
-            double angle1 = t * Math.PI * 2 * rotations + time * 2;
-
-            // First helix strand - use both perpendicular vectors for true 3D rotation
-            double x1 = Math.cos(angle1) * helixRadius;
-            double y1 = Math.sin(angle1) * helixRadius;
-            Vec3 helixOffset1 = perpendicular1.scale(x1).add(perpendicular2.scale(y1));
-            Vec3 pos1 = basePos.add(helixOffset1);
-
-            // Second helix strand (180 degrees offset)
-            double angle2 = angle1 + Math.PI;
-            double x2 = Math.cos(angle2) * helixRadius;
-            double y2 = Math.sin(angle2) * helixRadius;
-            Vec3 helixOffset2 = perpendicular1.scale(x2).add(perpendicular2.scale(y2));
-            Vec3 pos2 = basePos.add(helixOffset2);
-
-            // Draw line segments
-            if (prevPos1 != null) {
-                // First strand in bright purple
-                consumer.addVertex(matrix, (float) prevPos1.x, (float) prevPos1.y, (float) prevPos1.z)
-                        .setColor(Config.helixColor1Red, Config.helixColor1Green, Config.helixColor1Blue, 255);
-                consumer.addVertex(matrix, (float) pos1.x, (float) pos1.y, (float) pos1.z)
-                        .setColor(Config.helixColor1Red, Config.helixColor1Green, Config.helixColor1Blue, 255);
-
-                // Second strand in lighter purple
-                consumer.addVertex(matrix, (float) prevPos2.x, (float) prevPos2.y, (float) prevPos2.z)
-                        .setColor(Config.helixColor2Red, Config.helixColor2Green, Config.helixColor2Blue, 255);
-                consumer.addVertex(matrix, (float) pos2.x, (float) pos2.y, (float) pos2.z)
-                        .setColor(Config.helixColor2Red, Config.helixColor2Green, Config.helixColor2Blue, 255);
-            }
 
-            prevPos1 = pos1;
-            prevPos2 = pos2;
+        VertexConsumer consumer = bufferSource.getBuffer(RenderType.debugLineStrip(2.0));
+        Matrix4f matrix = poseStack.last().pose();
+        float[] strand1 = beam.strand1;
+        float[] strand2 = beam.strand2;
+        for (int i = 1; i < beam.points; i++) {
+            int prev = (i - 1) * 3;
+            int cur = i * 3;
+            // First strand in bright purple
+            consumer.addVertex(matrix, strand1[prev], strand1[prev + 1], strand1[prev + 2])
+                    .setColor(Config.helixColor1Red, Config.helixColor1Green, Config.helixColor1Blue, 255);
+            consumer.addVertex(matrix, strand1[cur], strand1[cur + 1], strand1[cur + 2])
+                    .setColor(Config.helixColor1Red, Config.helixColor1Green, Config.helixColor1Blue, 255);
+
+            // Second strand in lighter purple
+            consumer.addVertex(matrix, strand2[prev], strand2[prev + 1], strand2[prev + 2])
+                    .setColor(Config.helixColor2Red, Config.helixColor2Green, Config.helixColor2Blue, 255);
+            consumer.addVertex(matrix, strand2[cur], strand2[cur + 1], strand2[cur + 2])
+                    .setColor(Config.helixColor2Red, Config.helixColor2Green, Config.helixColor2Blue, 255);
         }
     }
 
-    private static void renderHighlightBox(PoseStack poseStack, MultiBufferSource bufferSource, Vec3 cameraPos,
-            BlockPos pos) {
+    private static void renderHighlightBox(PoseStack poseStack, VertexConsumer lines, Vec3 cameraPos, AABB box) {
         // Use built-in helper to render selection box (cyan, full opacity)
-        AABB box = new AABB(pos).inflate(0.02);
-        LevelRenderer.renderLineBox(poseStack, bufferSource.getBuffer(RenderType.debugLineStrip(2.0)),
+        LevelRenderer.renderLineBox(poseStack, lines,
                 box.minX - cameraPos.x, box.minY - cameraPos.y, box.minZ - cameraPos.z,
                 box.maxX - cameraPos.x, box.maxY - cameraPos.y, box.maxZ - cameraPos.z,
                 0.0f, 1.0f, 1.0f, 1.0f);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package com.maxleiter.tilefinder.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filter index over the screen's grouped entries, built once per grouping.
+ * <p>
+ * Names and mod ids are lower-cased up front. Matches for the last query are kept, and when the next query
+ * contains the previous one (the usual case while typing) only those matches are re-tested, since nothing
+ * that failed the shorter query can pass the longer one.
+ */
+final class SearchIndex {
+    private final List<TileEntry> entries;
+    private final String[] names;
+    private final String[] mods;
+
+    private boolean lastModQuery;
+    private String lastNeedle;
+    private int[] lastMatches;
+    private int lastMatchCount;
+
+    SearchIndex(List<TileEntry> entries) {
+        this.entries = entries;
+        this.names = new String[entries.size()];
+        this.mods = new String[entries.size()];
+        for (int i = 0; i < names.length; i++) {
+            TileEntry e = entries.get(i);
+            names[i] = e.blockName().toLowerCase(Locale.ROOT);
+            mods[i] = e.modId().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** Entries matching the filter text; "@text" matches mod ids, anything else matches names. */
+    List<TileEntry> filter(String query) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        boolean modQuery = lower.startsWith("@");
+        String needle = modQuery ? lower.substring(1) : lower;
+        String[] keys = modQuery ? mods : names;
+
+        boolean narrowing = lastNeedle != null && modQuery == lastModQuery && needle.contains(lastNeedle);
+        int candidates = narrowing ? lastMatchCount : keys.length;
+        int[] matches = new int[candidates];
+        int count = 0;
+        for (int k = 0; k < candidates; k++) {
+            int i = narrowing ? lastMatches[k] : k;
+            if (keys[i].contains(needle))
+                matches[count++] = i;
+        }
+
+        lastModQuery = modQuery;
+        lastNeedle = needle;
+        lastMatches = matches;
+        lastMatchCount = count;
+
+        List<TileEntry> result = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            result.add(entries.get(matches[k]));
+        }
+        return result;
+    }
+
+    /**
+     * Case-insensitive prefix completion over a fixed set of strings, kept sorted by their lower-cased form
+     * so lookups are a binary search and results come out in alphabetical order.
+     */
+    static final class Completions {
+        private final String[] keys;
+        private final String[] values;
+
+        Completions(Collection<String> values) {
+            String[] sorted = values.toArray(new String[0]);
+            Arrays.sort(sorted, (a, b) -> {
+                int c = a.toLowerCase(Locale.ROOT).compareTo(b.toLowerCase(Locale.ROOT));
+                return c != 0 ? c : a.compareTo(b);
+            });
+            this.values = sorted;
+            this.keys = new String[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                keys[i] = sorted[i].toLowerCase(Locale.ROOT);
+            }
+        }
+
+        /** The alphabetically first value starting with prefix (ignoring case), or null. */
+        String first(String prefix) {
+            String lower = prefix.toLowerCase(Locale.ROOT);
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(lower) < 0)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo < keys.length && keys[lo].startsWith(lower) ? values[lo] : null;
+        }
+    }
+}
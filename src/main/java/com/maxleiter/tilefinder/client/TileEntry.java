@@ -1,32 +1,44 @@
 package com.maxleiter.tilefinder.client;
 
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.phys.Vec3;
 
 /**
- * Light-weight record of a BlockEntity used by the GUI list.
+ * Light-weight record of a BlockEntity used by the GUI list: its position, block type and distance.
+ * Names and icons come from the shared {@link BlockInfo} cache.
  */
 class TileEntry {
-    final String blockName;
     final BlockPos pos;
+    final Block block;
     final double distance;
-    final ItemStack icon;
-    final String modId;
 
-    TileEntry(BlockEntity be, Vec3 playerPos) {
-        this.pos = be.getBlockPos();
+    TileEntry(BlockPos pos, Block block, Vec3 playerPos) {
+        this.pos = pos;
+        this.block = block;
         this.distance = Math.sqrt(playerPos.distanceToSqr(Vec3.atCenterOf(this.pos)));
+    }
+
+    TileEntry(TileEntry other) {
+        this.pos = other.pos;
+        this.block = other.block;
+        this.distance = other.distance;
+    }
 
-        this.blockName = GuiUtils.getDisplayName(be);
+    String blockName() {
+        return BlockInfo.of(block).displayName();
+    }
 
-        BlockState state = be.getBlockState();
-        Item item = state.getBlock().asItem();
-        this.icon = item == ItemStack.EMPTY.getItem() ? ItemStack.EMPTY : new ItemStack(item);
+    String modId() {
+        return BlockInfo.of(block).namespace();
+    }
+
+    String modName() {
+        return BlockInfo.of(block).modName();
+    }
 
-        this.modId = state.getBlock().builtInRegistryHolder().key().location().getNamespace();
+    ItemStack icon() {
+        return BlockInfo.of(block).icon();
     }
-}
\ No newline at end of file
+}
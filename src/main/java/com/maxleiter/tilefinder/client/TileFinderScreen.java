@@ -17,6 +17,8 @@ import java.util.stream.Collectors;
 import com.maxleiter.tilefinder.Config;
 import com.maxleiter.tilefinder.TileFinder;
 
+import it.unimi.dsi.fastutil.longs.Long2FloatMap;
+import it.unimi.dsi.fastutil.longs.Long2FloatMaps;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
@@ -25,11 +27,9 @@ import net.minecraft.client.gui.screens.ConfirmLinkScreen;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
-import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.ChestBlockEntity;
-import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.Vec3;
-import net.minecraft.core.Direction;
 
 /**
  * Modern rewrite of the TileFinder GUI for NeoForge 1.21.1.
@@ -46,13 +46,35 @@ public class TileFinderScreen extends Screen {
     private Map<String, Integer> nameCollisionCount = new HashMap<>();
     private Map<String, Set<String>> nameToMods = new HashMap<>();
 
+    // Refresh stage results and the inputs they were computed from
+    private Level collectedLevel;
+    private int collectedRadius;
+    private long collectedChunk;
+    private int collectedVersion;
+    private ClientScan scan;
+    private final List<TileEntry> collected = new ArrayList<>();
+    private List<TileEntry> pending;
+    private GroupMode groupedBy;
+    private boolean groupStale;
+    private List<TileEntry> grouped = List.of();
+    private String filteredBy;
+    private List<TileEntry> filtered = List.of();
+    private SortMode sortedBy;
+    private int sortedCostsVersion;
+    private Long2FloatMap tickCosts = Long2FloatMaps.EMPTY_MAP;
+    private RowLabel[] rowLabels = new RowLabel[0];
+
+    private record RowLabel(String name, String coords, boolean favorite) {
+    }
+
     // Search history
     private static final Deque<String> history = new ArrayDeque<>();
     private int histIndex = -1;
 
-    // Suggestion caches
-    private Set<String> modSuggestions = new HashSet<>();
-    private Set<String> nameSuggestions = new HashSet<>();
+    // Search caches
+    private SearchIndex searchIndex = new SearchIndex(List.of());
+    private SearchIndex.Completions modSuggestions = new SearchIndex.Completions(List.of());
+    private SearchIndex.Completions nameSuggestions = new SearchIndex.Completions(List.of());
 
     // Enums for modes
     private enum GroupMode {
@@ -60,7 +82,7 @@ public class TileFinderScreen extends Screen {
     }
 
     private enum SortMode {
-        DISTANCE, NAME, MODID
+        DISTANCE, NAME, MODID, TICK_COST
     }
 
     private static SortMode lastSort = SortMode.DISTANCE;
@@ -91,6 +113,11 @@ public class TileFinderScreen extends Screen {
                 Component.literal("Done"),
                 btn -> this.onClose()));
 
+        // Highlight every entry matching the current filter
+        this.addRenderableWidget(new ChipButton(PAD - 4, height - 30, 80, 18,
+                Component.literal("Highlight all"),
+                btn -> highlightAll()));
+
         int btnY = PAD;
 
         // Radius - / + buttons
@@ -133,7 +160,8 @@ public class TileFinderScreen extends Screen {
                     sortMode = switch (sortMode) {
                         case DISTANCE -> SortMode.NAME;
                         case NAME -> SortMode.MODID;
-                        case MODID -> SortMode.DISTANCE;
+                        case MODID -> SortMode.TICK_COST;
+                        case TICK_COST -> SortMode.DISTANCE;
                     };
                     lastSort = sortMode;
                     btn.setMessage(Component.literal("Sort: " + sortMode.name()));
@@ -153,146 +181,229 @@ public class TileFinderScreen extends Screen {
                 }));
     }
 
+    /**
+     * Runs the refresh pipeline: collect → group → filter → sort. Each stage remembers the inputs it was
+     * last run with and is skipped unless those inputs, or an earlier stage's output, changed.
+     */
     private void refreshTileList() {
-        tiles.clear();
         if (minecraft == null || minecraft.player == null || minecraft.level == null) {
+            tiles.clear();
             return;
         }
 
-        BlockPos playerPos = minecraft.player.blockPosition();
-        Vec3 playerVec = minecraft.player.position();
-        String filterRaw = filterField != null ? filterField.getValue() : "";
-        String filter = filterRaw.toLowerCase(Locale.ROOT);
-        String modFilter = filter.startsWith("@") ? filter.substring(1) : null;
-
-        List<BlockEntity> raw = new ArrayList<>();
-
-        // Collect all block entities in radius
-        int chunkX = playerPos.getX() >> 4;
-        int chunkZ = playerPos.getZ() >> 4;
-        int chunkRadius = (radius >> 4) + 1;
-
-        for (int x = chunkX - chunkRadius; x <= chunkX + chunkRadius; x++) {
-            for (int z = chunkZ - chunkRadius; z <= chunkZ + chunkRadius; z++) {
-                ChunkAccess chunk = minecraft.level.getChunk(x, z);
-                for (BlockPos pos : chunk.getBlockEntitiesPos()) {
-                    if (pos.distSqr(playerPos) > radius * radius)
-                        continue;
-                    BlockEntity be = minecraft.level.getBlockEntity(pos);
-                    if (be == null)
-                        continue;
-                    if (!isSecondaryChest(be))
-                        raw.add(be);
-                }
+        boolean changed = collect(minecraft.player.blockPosition(), minecraft.player.position());
+        changed = group(changed);
+        changed = filter(changed);
+        sort(changed);
+
+        // Calculate max scroll
+        int listTop = PAD + 24;
+        int listBottom = this.height - 50;
+        int listHeight = listBottom - listTop;
+        this.maxScroll = Math.max(0, tiles.size() * 20 - listHeight);
+        this.scrollOffset = Math.min(scrollOffset, maxScroll);
+    }
+
+    // Collection: restarts the background scan when the radius, the player's chunk or the tracked chunk set
+    // changes. Its rows arrive later through tick(): they stream straight in while there is nothing to show,
+    // otherwise they are buffered in pending and replace the old rows once the scan finishes.
+    private boolean collect(BlockPos playerPos, Vec3 playerVec) {
+        long chunk = ChunkPos.asLong(playerPos);
+        int version = ClientBlockEntityTracker.version();
+        if (minecraft.level == collectedLevel && radius == collectedRadius && chunk == collectedChunk
+                && version == collectedVersion) {
+            return false;
+        }
+        boolean levelChanged = minecraft.level != collectedLevel;
+        collectedLevel = minecraft.level;
+        collectedRadius = radius;
+        collectedChunk = chunk;
+        collectedVersion = version;
+
+        if (scan != null)
+            scan.cancel();
+        scan = ClientScan.start(ClientBlockEntityTracker.snapshot(minecraft.level, playerPos, radius),
+                playerPos, playerVec, radius);
+        if (!levelChanged && !collected.isEmpty()) {
+            pending = new ArrayList<>();
+            return false;
+        }
+        pending = null;
+        collected.clear();
+        updateSuggestions();
+        return true;
+    }
+
+    private void updateSuggestions() {
+        Set<String> mods = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        collected.forEach(e -> {
+            mods.add(e.modId());
+            names.add(e.blockName());
+        });
+        modSuggestions = new SearchIndex.Completions(mods);
+        nameSuggestions = new SearchIndex.Completions(names);
+    }
+
+    @Override
+    public void tick() {
+        super.tick();
+        // block entities appearing or disappearing in range restart collection without any input
+        if (ClientTickCosts.version() != sortedCostsVersion || ClientBlockEntityTracker.version() != collectedVersion)
+            refreshTileList();
+        if (scan == null)
+            return;
+        // read the flag first: once it is set, every batch is already queued and gets drained below
+        boolean finished = scan.isFinished();
+        boolean received = false;
+        for (List<TileEntry> batch; (batch = scan.poll()) != null;) {
+            if (pending != null) {
+                pending.addAll(batch);
+            } else {
+                collected.addAll(batch);
+                received = true;
             }
         }
+        if (finished) {
+            scan = null;
+            if (pending != null) {
+                collected.clear();
+                collected.addAll(pending);
+                pending = null;
+                received = true;
+            }
+        }
+        if (received) {
+            updateSuggestions();
+            groupStale = true;
+            refreshTileList();
+        }
+    }
 
-        // Apply grouping
+    @Override
+    public void removed() {
+        if (scan != null) {
+            scan.cancel();
+            scan = null;
+        }
+        pending = null;
+        ClientBlockEntityTracker.unwatch();
+        super.removed();
+    }
+
+    // Grouping: reruns on new collection results, a group mode change, or a favourite toggle in FAV mode
+    private boolean group(boolean collectionChanged) {
+        if (!collectionChanged && groupMode == groupedBy && !groupStale) {
+            return false;
+        }
+        groupedBy = groupMode;
+        groupStale = false;
+
+        List<TileEntry> raw = collected;
+        List<TileEntry> result = new ArrayList<>();
         boolean autoGroupLarge = groupMode == GroupMode.NONE;
 
         if (groupMode == GroupMode.FAV) {
             // Filter to only favorites
             raw = raw.stream()
-                    .filter(be -> Config.favorites.contains(posKey(new TileEntry(be, playerVec))))
+                    .filter(this::isFavorite)
                     .collect(Collectors.toList());
         }
 
         if (groupMode == GroupMode.NAME || groupMode == GroupMode.MODID || autoGroupLarge) {
-            Function<BlockEntity, String> keyFunc = groupMode == GroupMode.MODID
-                    ? be -> be.getBlockState().getBlock().builtInRegistryHolder().key().location().getNamespace()
-                    : GuiUtils::getDisplayName;
+            Function<TileEntry, String> keyFunc = groupMode == GroupMode.MODID
+                    ? TileEntry::modId
+                    : TileEntry::blockName;
 
             raw.stream().collect(Collectors.groupingBy(keyFunc))
                     .forEach((name, list) -> {
-                        BlockEntity closest = list.stream()
-                                .min(Comparator.comparingDouble(te -> te.getBlockPos().distSqr(playerPos)))
+                        TileEntry closest = list.stream()
+                                .min(Comparator.comparingDouble(e -> e.distance))
                                 .orElse(null);
                         if (closest != null) {
                             int cnt = list.size();
                             if (autoGroupLarge && cnt < 20 && groupMode == GroupMode.NONE) {
                                 // Don't compress small groups
-                                list.forEach(be -> {
-                                    TileEntry e = new TileEntry(be, playerVec);
-                                    if (testFilters(e, filter, modFilter))
-                                        tiles.add(e);
-                                });
+                                result.addAll(list);
                             } else {
                                 // Create grouped entry
-                                TileEntry entry = new TileEntry(closest, playerVec) {
+                                result.add(new TileEntry(closest) {
                                     final int count = cnt;
 
                                     @Override
                                     public String toString() {
                                         return super.toString() + " x" + count;
                                     }
-                                };
-                                if (testFilters(entry, filter, modFilter))
-                                    tiles.add(entry);
+                                });
                             }
                         }
                     });
         } else {
-            raw.forEach(be -> {
-                TileEntry entry = new TileEntry(be, playerVec);
-                if (testFilters(entry, filter, modFilter))
-                    tiles.add(entry);
-            });
+            result.addAll(raw);
         }
 
-        // Apply sorting
-        switch (sortMode) {
-            case DISTANCE -> tiles.sort(Comparator.comparingDouble(e -> e.distance));
-            case NAME -> tiles.sort(Comparator.comparing(e -> e.blockName.toLowerCase(Locale.ROOT)));
-            case MODID -> tiles.sort(Comparator.comparing(e -> e.modId));
+        grouped = result;
+        searchIndex = new SearchIndex(grouped);
+        return true;
+    }
+
+    // Filtering: reruns on new groups or a different filter text
+    private boolean filter(boolean groupsChanged) {
+        String filterRaw = filterField != null ? filterField.getValue() : "";
+        if (!groupsChanged && filterRaw.equals(filteredBy)) {
+            return false;
         }
+        filteredBy = filterRaw;
+        filtered = searchIndex.filter(filterRaw);
 
         // Build collision maps
         nameCollisionCount.clear();
         nameToMods.clear();
-        for (TileEntry e : tiles) {
-            nameCollisionCount.merge(e.blockName, 1, Integer::sum);
-            nameToMods.computeIfAbsent(e.blockName, k -> new HashSet<>()).add(e.modId);
+        for (TileEntry e : filtered) {
+            nameCollisionCount.merge(e.blockName(), 1, Integer::sum);
+            nameToMods.computeIfAbsent(e.blockName(), k -> new HashSet<>()).add(e.modId());
         }
-
-        // Calculate max scroll
-        int listTop = PAD + 24;
-        int listBottom = this.height - 50;
-        int listHeight = listBottom - listTop;
-        this.maxScroll = Math.max(0, tiles.size() * 20 - listHeight);
-        this.scrollOffset = Math.min(scrollOffset, maxScroll);
-
-        // Build suggestions
-        modSuggestions.clear();
-        nameSuggestions.clear();
-        raw.forEach(be -> {
-            modSuggestions.add(be.getBlockState().getBlock().builtInRegistryHolder().key().location().getNamespace());
-            nameSuggestions.add(GuiUtils.getDisplayName(be));
-        });
+        return true;
     }
 
-    private boolean testFilters(TileEntry entry, String text, String mod) {
-        if (mod != null) {
-            return entry.modId.toLowerCase(Locale.ROOT).contains(mod);
+    // Sorting: reruns on a new filtered list, a sort mode change or new tick costs from the server
+    private void sort(boolean filterChanged) {
+        if (!filterChanged && sortMode == sortedBy && ClientTickCosts.version() == sortedCostsVersion) {
+            return;
         }
-        return entry.blockName.toLowerCase(Locale.ROOT).contains(text);
-    }
+        sortedBy = sortMode;
+        sortedCostsVersion = ClientTickCosts.version();
+        tickCosts = ClientTickCosts.costs(minecraft.level.dimension().location());
 
-    private boolean isSecondaryChest(BlockEntity be) {
-        if (!(be instanceof ChestBlockEntity chest))
-            return false;
+        tiles.clear();
+        tiles.addAll(filtered);
+        switch (sortMode) {
+            case DISTANCE -> tiles.sort(Comparator.comparingDouble(e -> e.distance));
+            case NAME -> tiles.sort(Comparator.comparing(e -> e.blockName().toLowerCase(Locale.ROOT)));
+            case MODID -> tiles.sort(Comparator.comparing(TileEntry::modId));
+            // unsampled entries sort last
+            case TICK_COST -> tiles.sort(Comparator.comparingDouble(e -> -tickCosts.getOrDefault(e.pos.asLong(), -1f)));
+        }
+        rowLabels = new RowLabel[tiles.size()];
+    }
 
-        // Check adjacent positions for double chest
-        for (Direction facing : Direction.Plane.HORIZONTAL) {
-            BlockPos adjacent = chest.getBlockPos().relative(facing);
-            BlockEntity other = chest.getLevel().getBlockEntity(adjacent);
-            if (other instanceof ChestBlockEntity) {
-                // If there's a chest to the west or north, consider this the secondary
-                if (facing == Direction.WEST || facing == Direction.NORTH) {
-                    return true;
-                }
-            }
+    // Row text is formatted the first time a row is drawn and kept until the list or the row's favourite changes
+    private RowLabel rowLabel(int index) {
+        RowLabel label = rowLabels[index];
+        if (label == null) {
+            TileEntry entry = tiles.get(index);
+            boolean collideAcrossMods = nameToMods.getOrDefault(entry.blockName(), Collections.emptySet()).size() > 1;
+            String name = entry.blockName()
+                    + (collideAcrossMods ? " (" + entry.modName() + ")" : "");
+            String coords = String.format("(%d,%d,%d) %.1fm",
+                    entry.pos.getX(), entry.pos.getY(), entry.pos.getZ(), entry.distance);
+            long packed = entry.pos.asLong();
+            if (tickCosts.containsKey(packed))
+                coords += String.format(Locale.ROOT, " %.1fµs/t", tickCosts.get(packed));
+            label = new RowLabel(name, coords, isFavorite(entry));
+            rowLabels[index] = label;
         }
-        return false;
+        return label;
     }
 
     @Override
@@ -302,6 +413,10 @@ public class TileFinderScreen extends Screen {
         // Draw labels
         gfx.drawString(this.font, "Filter:", PAD, PAD - 10, 0xFFFFFF);
         gfx.drawString(this.font, "Rad: " + radius, 140, PAD - 10, 0xFFFFFF);
+        if (scan != null && scan.totalChunks() > 0) {
+            int percent = scan.scannedChunks() * 100 / scan.totalChunks();
+            gfx.drawString(this.font, "Scanning… " + percent + "%", PAD, this.height - 44, 0xAAAAAA);
+        }
 
         super.render(gfx, mouseX, mouseY, partialTick);
 
@@ -311,46 +426,41 @@ public class TileFinderScreen extends Screen {
         // Shaded list background
         gfx.fill(PAD - 6, listTop - 2, this.width - PAD + 6, listBottom, 0x66000000);
 
-        // Render list items
-        int y = listTop - scrollOffset;
-        for (TileEntry entry : tiles) {
-            int lineHeight = 20;
-            if (y + lineHeight > listTop && y < listBottom) {
-                int cardLeft = PAD - 4;
-                int cardRight = this.width - PAD + 4;
-                int cardBottom = y + lineHeight - 2;
-
-                // Hover effect
-                boolean hover = mouseX >= cardLeft && mouseX <= cardRight && mouseY >= y && mouseY <= cardBottom;
-                int bgColor = hover ? 0xAA3366FF : 0x66000000;
-                gfx.fill(cardLeft, y, cardRight, cardBottom, bgColor);
-
-                // Icon
-                if (!entry.icon.isEmpty()) {
-                    gfx.renderItem(entry.icon, cardLeft + 4, y + 2);
-                }
-
-                // Text
-                int textX = cardLeft + 24;
-                boolean collideAcrossMods = nameToMods.getOrDefault(entry.blockName, Collections.emptySet()).size() > 1;
-                String namePart = entry.blockName
-                        + (collideAcrossMods ? " (" + GuiUtils.lookupModName(entry.modId) + ")" : "");
-                gfx.drawString(this.font, namePart, textX, y + 2, 0xFFFFFF);
-
-                String coordPart = String.format("(%d,%d,%d) %.1fm",
-                        entry.pos.getX(), entry.pos.getY(), entry.pos.getZ(), entry.distance);
-                gfx.drawString(this.font, coordPart, textX, y + 11, 0xAAAAAA);
-
-                // Star icon
-                int starX = cardRight - 18;
-                boolean isFav = Config.favorites.contains(posKey(entry));
-                gfx.pose().pushPose();
-                gfx.pose().translate(starX, y, 0);
-                gfx.pose().scale(1.6f, 1.6f, 1);
-                gfx.drawString(this.font, isFav ? "★" : "☆", 0, 0, isFav ? 0xFFFF55 : 0xFFFFFF);
-                gfx.pose().popPose();
+        // Render only the rows that intersect the list area
+        int lineHeight = 20;
+        int first = scrollOffset / lineHeight;
+        int last = Math.min(tiles.size(), (scrollOffset + listBottom - listTop + lineHeight - 1) / lineHeight);
+        for (int i = first; i < last; i++) {
+            TileEntry entry = tiles.get(i);
+            RowLabel label = rowLabel(i);
+            int y = listTop - scrollOffset + i * lineHeight;
+            int cardLeft = PAD - 4;
+            int cardRight = this.width - PAD + 4;
+            int cardBottom = y + lineHeight - 2;
+
+            // Hover effect
+            boolean hover = mouseX >= cardLeft && mouseX <= cardRight && mouseY >= y && mouseY <= cardBottom;
+            int bgColor = hover ? 0xAA3366FF : 0x66000000;
+            gfx.fill(cardLeft, y, cardRight, cardBottom, bgColor);
+
+            // Icon
+            if (!entry.icon().isEmpty()) {
+                gfx.renderItem(entry.icon(), cardLeft + 4, y + 2);
             }
-            y += 20;
+
+            // Text
+            int textX = cardLeft + 24;
+            gfx.drawString(this.font, label.name(), textX, y + 2, 0xFFFFFF);
+            gfx.drawString(this.font, label.coords(), textX, y + 11, 0xAAAAAA);
+
+            // Star icon
+            int starX = cardRight - 18;
+            boolean isFav = label.favorite();
+            gfx.pose().pushPose();
+            gfx.pose().translate(starX, y, 0);
+            gfx.pose().scale(1.6f, 1.6f, 1);
+            gfx.drawString(this.font, isFav ? "★" : "☆", 0, 0, isFav ? 0xFFFF55 : 0xFFFFFF);
+            gfx.pose().popPose();
         }
 
         // Draw scrollbar
@@ -393,13 +503,9 @@ public class TileFinderScreen extends Screen {
 
             if (mouseX >= starStart && mouseX <= starEnd && mouseY >= rowY && mouseY <= rowY + 16) {
                 // Toggle favorite
-                String key = posKey(entry);
-                if (Config.favorites.contains(key)) {
-                    Config.favorites.remove(key);
-                } else {
-                    Config.favorites.add(key);
-                }
-                Config.saveFavorites();
+                Favorites.toggle(minecraft.level.dimension(), entry.pos);
+                rowLabels[index] = null;
+                groupStale = groupMode == GroupMode.FAV;
                 refreshTileList();
                 return true;
             }
@@ -442,23 +548,12 @@ public class TileFinderScreen extends Screen {
         // Tab completion
         if (keyCode == 258) { // Tab key
             String txt = filterField.getValue();
-            if (txt.startsWith("@")) {
-                String sub = txt.substring(1).toLowerCase(Locale.ROOT);
-                for (String m : modSuggestions) {
-                    if (m.toLowerCase(Locale.ROOT).startsWith(sub)) {
-                        filterField.setValue("@" + m);
-                        refreshTileList();
-                        break;
-                    }
-                }
-            } else {
-                for (String n : nameSuggestions) {
-                    if (n.toLowerCase(Locale.ROOT).startsWith(txt.toLowerCase(Locale.ROOT))) {
-                        filterField.setValue(n);
-                        refreshTileList();
-                        break;
-                    }
-                }
+            String completion = txt.startsWith("@")
+                    ? prefixed("@", modSuggestions.first(txt.substring(1)))
+                    : nameSuggestions.first(txt);
+            if (completion != null) {
+                filterField.setValue(completion);
+                refreshTileList();
             }
             return true;
         }
@@ -497,7 +592,27 @@ public class TileFinderScreen extends Screen {
         return false;
     }
 
-    private String posKey(TileEntry e) {
-        return minecraft.level.dimension().location() + ":" + e.pos.getX() + ":" + e.pos.getY() + ":" + e.pos.getZ();
+    // Uses the ungrouped entries, so grouped rows contribute every member rather than just the closest one
+    private void highlightAll() {
+        List<TileEntry> source = collected;
+        if (groupMode == GroupMode.FAV) {
+            source = source.stream()
+                    .filter(this::isFavorite)
+                    .collect(Collectors.toList());
+        }
+        List<TileEntry> matching = new SearchIndex(source).filter(filterField.getValue());
+        if (matching.isEmpty()) {
+            return;
+        }
+        PathHighlighter.setTargets(matching.stream().map(e -> e.pos).collect(Collectors.toList()));
+        this.onClose();
+    }
+
+    private static String prefixed(String prefix, String value) {
+        return value == null ? null : prefix + value;
+    }
+
+    private boolean isFavorite(TileEntry e) {
+        return Favorites.contains(minecraft.level.dimension(), e.pos);
     }
 }
\ No newline at end of file
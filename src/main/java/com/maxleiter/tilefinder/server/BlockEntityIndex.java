@@ -0,0 +1,257 @@
+package com.maxleiter.tilefinder.server;
+
+import com.maxleiter.tilefinder.TileFinder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.common.util.BlockSnapshot;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of block entities in loaded chunks: dimension → chunk → block type → packed positions.
+ * <p>
+ * Chunks are indexed wholesale when they load and dropped when they unload. In between, player place
+ * events and neighbour notifications (breaking, commands, explosions, pistons, most machines) keep
+ * individual positions current, and {@link #query} drops entries the loaded chunk no longer holds. Block entities
+ * added by a setBlock that skips neighbour updates are not seen until the chunk reloads, which is what
+ * {@code /tilefinder index check} exists to detect.
+ * <p>
+ * Every change made here is mirrored into {@link BlockEntitySavedData}, except that unloading a chunk
+ * leaves its persistent entries in place.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID)
+public final class BlockEntityIndex {
+    private BlockEntityIndex() {}
+
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<Map<Block, LongSet>>> LEVELS = new HashMap<>();
+
+    /**
+     * Indexed block entities inside area. Each entry is confirmed against the loaded chunk's block-entity
+     * map, and entries that no longer match are refreshed from the world and left out, so removals the
+     * events missed never reach the results.
+     */
+    static ScanSnapshot query(ServerLevel level, BlockEntityScanner.Area area) {
+        LongList stale = new LongArrayList();
+        ScanSnapshot results = collect(level, area, stale);
+        if (stale.isEmpty()) return results;
+        for (LongIterator it = stale.iterator(); it.hasNext(); ) refresh(level, BlockPos.of(it.nextLong()));
+        return collect(level, area, null);
+    }
+
+    /** Index entries inside area; with stale non-null, entries the world disagrees with go there instead. */
+    private static ScanSnapshot collect(ServerLevel level, BlockEntityScanner.Area area, @Nullable LongList stale) {
+        ScanSnapshot.Builder results = new ScanSnapshot.Builder();
+        Long2ObjectMap<Map<Block, LongSet>> chunks = LEVELS.get(level.dimension());
+        if (chunks == null) return results.build();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int cx = area.minChunkX(); cx <= area.maxChunkX(); cx++) {
+            for (int cz = area.minChunkZ(); cz <= area.maxChunkZ(); cz++) {
+                Map<Block, LongSet> byBlock = chunks.get(ChunkPos.asLong(cx, cz));
+                if (byBlock == null) continue;
+                LevelChunk chunk = stale == null ? null : level.getChunkSource().getChunkNow(cx, cz);
+                for (Map.Entry<Block, LongSet> e : byBlock.entrySet()) {
+                    for (LongIterator it = e.getValue().iterator(); it.hasNext(); ) {
+                        long packed = it.nextLong();
+                        if (!area.contains(cursor.set(packed))) continue;
+                        if (stale != null) {
+                            BlockEntity be = chunk == null ? null : chunk.getBlockEntities().get(cursor);
+                            if (be == null || be.getBlockState().getBlock() != e.getKey()) {
+                                stale.add(packed);
+                                continue;
+                            }
+                        }
+                        results.add(packed, e.getKey());
+                    }
+                }
+            }
+        }
+        return results.build();
+    }
+
+    /** Per-block difference between the index and a fresh scan of the same area. */
+    record Mismatch(Block block, int missing, int stale) {}
+
+    /**
+     * Compare the index against a full rescan of the area. Chunks that disagree are re-indexed, so running
+     * the check also repairs what it reports.
+     */
+    static List<Mismatch> check(ServerLevel level, BlockEntityScanner.Area area) {
+        Long2ObjectMap<Block> indexed = byPosition(collect(level, area, null));
+        Long2ObjectMap<Block> scanned = byPosition(BlockEntityScanner.scan(level, area));
+        Map<Block, int[]> counts = new HashMap<>();
+        LongSet dirtyChunks = new LongOpenHashSet();
+        diff(scanned, indexed, counts, dirtyChunks, 0);
+        diff(indexed, scanned, counts, dirtyChunks, 1);
+
+        for (LongIterator it = dirtyChunks.iterator(); it.hasNext(); ) {
+            long key = it.nextLong();
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(key), ChunkPos.getZ(key));
+            if (chunk != null) {
+                reindex(chunk);
+            } else {
+                Long2ObjectMap<Map<Block, LongSet>> chunks = LEVELS.get(level.dimension());
+                if (chunks != null) chunks.remove(key);
+            }
+        }
+
+        List<Mismatch> out = new ArrayList<>();
+        counts.forEach((block, c) -> out.add(new Mismatch(block, c[0], c[1])));
+        return out;
+    }
+
+    private static Long2ObjectMap<Block> byPosition(ScanSnapshot snapshot) {
+        Long2ObjectMap<Block> out = new Long2ObjectOpenHashMap<>(snapshot.size());
+        for (int i = 0; i < snapshot.size(); i++) out.put(snapshot.position(i), snapshot.block(i));
+        return out;
+    }
+
+    /** Count entries of {@code a} that {@code b} lacks (or holds under another block) into {@code counts[block][slot]}. */
+    private static void diff(Long2ObjectMap<Block> a, Long2ObjectMap<Block> b, Map<Block, int[]> counts, LongSet dirtyChunks, int slot) {
+        for (Long2ObjectMap.Entry<Block> e : a.long2ObjectEntrySet()) {
+            if (b.get(e.getLongKey()) == e.getValue()) continue;
+            counts.computeIfAbsent(e.getValue(), k -> new int[2])[slot]++;
+            dirtyChunks.add(ChunkPos.asLong(BlockPos.of(e.getLongKey())));
+        }
+    }
+
+    /** Re-read one loaded chunk from the world, replacing whatever the index and saved data held for it. */
+    static void reindex(LevelChunk chunk) {
+        if (!(chunk.getLevel() instanceof ServerLevel level)) return;
+        Map<Block, LongSet> byBlock = new IdentityHashMap<>();
+        Long2ObjectMap<Block> saved = new Long2ObjectOpenHashMap<>();
+        for (Map.Entry<BlockPos, BlockEntity> e : chunk.getBlockEntities().entrySet()) {
+            Block block = e.getValue().getBlockState().getBlock();
+            byBlock.computeIfAbsent(block, b -> new LongOpenHashSet()).add(e.getKey().asLong());
+            saved.put(e.getKey().asLong(), block);
+        }
+        BlockEntitySavedData.get(level).replaceChunk(chunk.getPos().toLong(), saved);
+        Long2ObjectMap<Map<Block, LongSet>> chunks = LEVELS.computeIfAbsent(level.dimension(), k -> new Long2ObjectOpenHashMap<>());
+        if (byBlock.isEmpty()) {
+            chunks.remove(chunk.getPos().toLong());
+        } else {
+            chunks.put(chunk.getPos().toLong(), byBlock);
+        }
+    }
+
+    private static void refresh(LevelAccessor accessor, BlockPos pos) {
+        if (!(accessor instanceof ServerLevel level)) return;
+        // getBlockEntity would load the chunk; the saved data keeps what it last saw there
+        if (!level.isLoaded(pos)) {
+            unindex(level, pos);
+            return;
+        }
+        long chunkKey = ChunkPos.asLong(pos);
+        Long2ObjectMap<Map<Block, LongSet>> chunks = LEVELS.computeIfAbsent(level.dimension(), k -> new Long2ObjectOpenHashMap<>());
+        Map<Block, LongSet> byBlock = chunks.get(chunkKey);
+        if (byBlock != null) {
+            long packed = pos.asLong();
+            byBlock.values().removeIf(set -> set.remove(packed) && set.isEmpty());
+        }
+        BlockEntity be = level.getBlockEntity(pos);
+        if (be != null) {
+            if (byBlock == null) {
+                byBlock = new IdentityHashMap<>();
+                chunks.put(chunkKey, byBlock);
+            }
+            byBlock.computeIfAbsent(be.getBlockState().getBlock(), b -> new LongOpenHashSet()).add(pos.asLong());
+            BlockEntitySavedData.get(level).put(pos.asLong(), be.getBlockState().getBlock());
+        } else {
+            if (byBlock != null && byBlock.isEmpty()) chunks.remove(chunkKey);
+            BlockEntitySavedData.get(level).remove(pos.asLong());
+        }
+    }
+
+    private static void unindex(ServerLevel level, BlockPos pos) {
+        Long2ObjectMap<Map<Block, LongSet>> chunks = LEVELS.get(level.dimension());
+        if (chunks == null) return;
+        long chunkKey = ChunkPos.asLong(pos);
+        Map<Block, LongSet> byBlock = chunks.get(chunkKey);
+        if (byBlock == null) return;
+        long packed = pos.asLong();
+        byBlock.values().removeIf(set -> set.remove(packed) && set.isEmpty());
+        if (byBlock.isEmpty()) chunks.remove(chunkKey);
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getChunk() instanceof LevelChunk chunk) reindex(chunk);
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        Long2ObjectMap<Map<Block, LongSet>> chunks = LEVELS.get(level.dimension());
+        if (chunks != null) chunks.remove(event.getChunk().getPos().toLong());
+    }
+
+    // cancelled events never reach LOWEST listeners, so anything seen here has actually happened
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onBlockPlaced(BlockEvent.EntityPlaceEvent event) {
+        if (event instanceof BlockEvent.EntityMultiPlaceEvent multi) {
+            for (BlockSnapshot snapshot : multi.getReplacedBlockSnapshots()) {
+                refresh(event.getLevel(), snapshot.getPos());
+            }
+        } else {
+            refresh(event.getLevel(), event.getPos());
+        }
+    }
+
+    /**
+     * Fired after a block changes with neighbour updates, which covers commands, explosions, pistons and
+     * most mod machines. Cancelling only stops the neighbour updates; the change itself has happened.
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST, receiveCanceled = true)
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) return;
+        // most updates involve no block entity either before or after; skip those without touching the world
+        if (!event.getState().hasBlockEntity() && !isIndexed(level, event.getPos())) return;
+        refresh(level, event.getPos());
+    }
+
+    private static boolean isIndexed(ServerLevel level, BlockPos pos) {
+        Long2ObjectMap<Map<Block, LongSet>> chunks = LEVELS.get(level.dimension());
+        Map<Block, LongSet> byBlock = chunks == null ? null : chunks.get(ChunkPos.asLong(pos));
+        if (byBlock == null) return false;
+        long packed = pos.asLong();
+        for (LongSet set : byBlock.values()) {
+            if (set.contains(packed)) return true;
+        }
+        return false;
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) LEVELS.remove(level.dimension());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        LEVELS.clear();
+    }
+}
@@ -0,0 +1,152 @@
+package com.maxleiter.tilefinder.server;
+
+import com.maxleiter.tilefinder.TileFinder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Persistent per-dimension record of every block entity the server has seen, by block type, so admins can
+ * search the whole world ({@code /tilefinder global}) without loading chunks.
+ * <p>
+ * {@link BlockEntityIndex}'s listeners keep it current: a chunk's entries are replaced whenever the index
+ * re-reads the chunk, and single positions change along with the index's. Unlike the index, entries stay
+ * when a chunk unloads, so they describe the world as it was when each chunk was last loaded. On disk each
+ * block type stores its positions per region (32x32 chunks) as sorted, delta-encoded packed longs, which
+ * the compressed data file shrinks well.
+ */
+public final class BlockEntitySavedData extends SavedData {
+    private static final String NAME = TileFinder.MODID + "_block_entities";
+
+    private final Long2ObjectMap<Long2ObjectMap<Block>> byChunk = new Long2ObjectOpenHashMap<>();
+    private final Map<Block, LongSet> byBlock = new IdentityHashMap<>();
+
+    private BlockEntitySavedData() {}
+
+    static BlockEntitySavedData get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(
+                new SavedData.Factory<>(BlockEntitySavedData::new, BlockEntitySavedData::load, null), NAME);
+    }
+
+    /** Packed positions per block type; read-only. */
+    Map<Block, LongSet> byBlock() {
+        return Collections.unmodifiableMap(byBlock);
+    }
+
+    /** Replace everything recorded for one chunk with entries (packed position → block). */
+    void replaceChunk(long chunkKey, Long2ObjectMap<Block> entries) {
+        Long2ObjectMap<Block> old = byChunk.get(chunkKey);
+        if (old == null ? entries.isEmpty() : old.equals(entries)) return;
+        if (old != null) {
+            for (Long2ObjectMap.Entry<Block> e : old.long2ObjectEntrySet()) unlink(e.getLongKey(), e.getValue());
+        }
+        if (entries.isEmpty()) {
+            byChunk.remove(chunkKey);
+        } else {
+            byChunk.put(chunkKey, entries);
+            for (Long2ObjectMap.Entry<Block> e : entries.long2ObjectEntrySet()) link(e.getLongKey(), e.getValue());
+        }
+        setDirty();
+    }
+
+    void put(long pos, Block block) {
+        long chunkKey = ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+        Block old = byChunk.computeIfAbsent(chunkKey, k -> new Long2ObjectOpenHashMap<>()).put(pos, block);
+        if (old == block) return;
+        if (old != null) unlink(pos, old);
+        link(pos, block);
+        setDirty();
+    }
+
+    void remove(long pos) {
+        long chunkKey = ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+        Long2ObjectMap<Block> chunk = byChunk.get(chunkKey);
+        if (chunk == null) return;
+        Block old = chunk.remove(pos);
+        if (old == null) return;
+        if (chunk.isEmpty()) byChunk.remove(chunkKey);
+        unlink(pos, old);
+        setDirty();
+    }
+
+    private void link(long pos, Block block) {
+        byBlock.computeIfAbsent(block, b -> new LongOpenHashSet()).add(pos);
+    }
+
+    private void unlink(long pos, Block block) {
+        LongSet set = byBlock.get(block);
+        if (set != null && set.remove(pos) && set.isEmpty()) byBlock.remove(block);
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Persistence
+    // ----------------------------------------------------------------------------------------------------
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider registries) {
+        CompoundTag blocks = new CompoundTag();
+        byBlock.forEach((block, positions) -> {
+            // group by region (chunk coordinates >> 5), then delta-encode each region's sorted positions
+            Long2ObjectMap<LongArrayList> regions = new Long2ObjectOpenHashMap<>();
+            for (long pos : positions.toLongArray()) {
+                long region = ChunkPos.asLong(BlockPos.getX(pos) >> 9, BlockPos.getZ(pos) >> 9);
+                regions.computeIfAbsent(region, k -> new LongArrayList()).add(pos);
+            }
+            ListTag list = new ListTag();
+            for (Long2ObjectMap.Entry<LongArrayList> e : regions.long2ObjectEntrySet()) {
+                long[] sorted = e.getValue().toLongArray();
+                Arrays.sort(sorted);
+                for (int i = sorted.length - 1; i > 0; i--) sorted[i] -= sorted[i - 1];
+                CompoundTag region = new CompoundTag();
+                region.putInt("x", ChunkPos.getX(e.getLongKey()));
+                region.putInt("z", ChunkPos.getZ(e.getLongKey()));
+                region.put("p", new LongArrayTag(sorted));
+                list.add(region);
+            }
+            blocks.put(BuiltInRegistries.BLOCK.getKey(block).toString(), list);
+        });
+        tag.put("blocks", blocks);
+        return tag;
+    }
+
+    private static BlockEntitySavedData load(CompoundTag tag, HolderLookup.Provider registries) {
+        BlockEntitySavedData data = new BlockEntitySavedData();
+        CompoundTag blocks = tag.getCompound("blocks");
+        for (String key : blocks.getAllKeys()) {
+            ResourceLocation id = ResourceLocation.tryParse(key);
+            Optional<Block> block = id == null ? Optional.empty() : BuiltInRegistries.BLOCK.getOptional(id);
+            if (block.isEmpty()) continue; // block type no longer registered
+            ListTag regions = blocks.getList(key, Tag.TAG_COMPOUND);
+            for (int r = 0; r < regions.size(); r++) {
+                long[] deltas = regions.getCompound(r).getLongArray("p");
+                long pos = 0;
+                for (int i = 0; i < deltas.length; i++) {
+                    pos = (i == 0) ? deltas[0] : pos + deltas[i];
+                    long chunkKey = ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+                    data.byChunk.computeIfAbsent(chunkKey, k -> new Long2ObjectOpenHashMap<>()).put(pos, block.get());
+                    data.link(pos, block.get());
+                }
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,65 @@
+package com.maxleiter.tilefinder.server;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.Map;
+
+/**
+ * Finds block entities around a point by walking the block-entity maps of the loaded chunks that
+ * overlap the search box, instead of probing every coordinate inside it.
+ * <p>
+ * Cost scales with the number of block entities in range rather than the volume searched. Chunks that
+ * are not currently loaded are skipped; the scan never loads or generates terrain.
+ */
+final class BlockEntityScanner {
+    private BlockEntityScanner() {}
+
+    /** Axis-aligned search box, clamped to the level's build height. */
+    record Area(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        static Area around(ServerLevel level, BlockPos center, int radius) {
+            return new Area(
+                    center.getX() - radius,
+                    Math.max(level.getMinBuildHeight(), center.getY() - radius),
+                    center.getZ() - radius,
+                    center.getX() + radius,
+                    Math.min(level.getMaxBuildHeight() - 1, center.getY() + radius),
+                    center.getZ() + radius);
+        }
+
+        boolean contains(BlockPos pos) {
+            int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        int minChunkX() { return minX >> 4; }
+        int maxChunkX() { return maxX >> 4; }
+        int minChunkZ() { return minZ >> 4; }
+        int maxChunkZ() { return maxZ >> 4; }
+    }
+
+    static ScanSnapshot scan(ServerLevel level, BlockPos center, int radius) {
+        return scan(level, Area.around(level, center, radius));
+    }
+
+    static ScanSnapshot scan(ServerLevel level, Area area) {
+        ScanSnapshot.Builder results = new ScanSnapshot.Builder();
+        for (int cx = area.minChunkX(); cx <= area.maxChunkX(); cx++) {
+            for (int cz = area.minChunkZ(); cz <= area.maxChunkZ(); cz++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(cx, cz);
+                if (chunk != null) scanChunk(chunk, area, results);
+            }
+        }
+        return results.build();
+    }
+
+    static void scanChunk(LevelChunk chunk, Area area, ScanSnapshot.Builder results) {
+        for (Map.Entry<BlockPos, BlockEntity> e : chunk.getBlockEntities().entrySet()) {
+            BlockPos pos = e.getKey();
+            if (!area.contains(pos)) continue;
+            results.add(pos.asLong(), e.getValue().getBlockState().getBlock());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.maxleiter.tilefinder.server;
+
+import com.maxleiter.tilefinder.TileFinder;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Blocks;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+import org.slf4j.Logger;
+
+import java.util.Locale;
+
+/**
+ * Checks {@link BlockEntityScanner} against the per-coordinate cube walk it replaced, and logs how long each
+ * takes at radius 16, 64 and 128. Chests are placed at a fixed density in every chunk out to the largest
+ * radius, so each larger radius scans proportionally more block entities. Run with the
+ * {@code gameTestServer} run configuration.
+ */
+@GameTestHolder(TileFinder.MODID)
+@PrefixGameTestTemplate(false)
+public final class BlockEntityScannerTests {
+    private BlockEntityScannerTests() {}
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final int[] RADII = {16, 64, 128};
+    /** One chest every {@value #SPACING} blocks along x and z on a single layer, 16 per chunk. */
+    private static final int SPACING = 4;
+    // above the template, so the placed layer never overlaps another test's structure
+    private static final int LAYER_HEIGHT = 12;
+
+    // the "empty" template is 16x8x16 blocks of air
+    @GameTest(template = "empty")
+    public static void scanMatchesCubeWalk(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        BlockPos center = helper.absolutePos(new BlockPos(8, 4, 8));
+        LongSet placed = fill(level, BlockEntityScanner.Area.around(level, center, RADII[RADII.length - 1]),
+                center.getY() + LAYER_HEIGHT);
+        try {
+            for (int radius : RADII) {
+                BlockEntityScanner.Area area = BlockEntityScanner.Area.around(level, center, radius);
+                long start = System.nanoTime();
+                ScanSnapshot scanned = BlockEntityScanner.scan(level, center, radius);
+                long scanNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                LongSet walked = cubeWalk(level, area);
+                long walkNanos = System.nanoTime() - start;
+
+                LongSet found = new LongOpenHashSet();
+                for (int i = 0; i < scanned.size(); i++) found.add(scanned.position(i));
+                int inside = 0;
+                BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+                for (LongIterator it = placed.iterator(); it.hasNext(); ) {
+                    long pos = it.nextLong();
+                    if (!area.contains(cursor.set(pos))) continue;
+                    inside++;
+                    helper.assertTrue(found.contains(pos), "radius " + radius + ": scan missed the chest at " + cursor.toShortString());
+                }
+                // the world may hold block entities of its own, so compare against the walk, not a fixed count
+                helper.assertTrue(found.equals(walked), "radius " + radius + ": scan found " + found.size()
+                        + " block entities, cube walk found " + walked.size());
+                LOGGER.info("BlockEntityScanner radius {}: {} block entities ({} placed), scan {} us, cube walk {} us, {}x faster",
+                        radius, found.size(), inside, scanNanos / 1000, walkNanos / 1000,
+                        String.format(Locale.ROOT, "%.1f", walkNanos / (double) Math.max(1, scanNanos)));
+            }
+        } finally {
+            for (LongIterator it = placed.iterator(); it.hasNext(); ) level.removeBlock(BlockPos.of(it.nextLong()), false);
+        }
+        helper.succeed();
+    }
+
+    // a chest every SPACING blocks at height y in every chunk of area; loads the chunks it touches
+    private static LongSet fill(ServerLevel level, BlockEntityScanner.Area area, int y) {
+        LongSet placed = new LongOpenHashSet();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int x = area.minX(); x <= area.maxX(); x++) {
+            if (Math.floorMod(x, SPACING) != 0) continue;
+            for (int z = area.minZ(); z <= area.maxZ(); z++) {
+                if (Math.floorMod(z, SPACING) != 0) continue;
+                level.setBlockAndUpdate(cursor.set(x, y, z), Blocks.CHEST.defaultBlockState());
+                placed.add(cursor.asLong());
+            }
+        }
+        return placed;
+    }
+
+    // the scan TileFinderServerUI used before BlockEntityScanner: probe every coordinate in the box
+    private static LongSet cubeWalk(ServerLevel level, BlockEntityScanner.Area area) {
+        LongSet out = new LongOpenHashSet();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int x = area.minX(); x <= area.maxX(); x++) {
+            for (int y = area.minY(); y <= area.maxY(); y++) {
+                for (int z = area.minZ(); z <= area.maxZ(); z++) {
+                    cursor.set(x, y, z);
+                    // only loaded chunks, so the walk sees exactly what the scanner can
+                    if (!level.isLoaded(cursor)) continue;
+                    if (level.getBlockEntity(cursor) != null) out.add(cursor.asLong());
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,37 @@
+package com.maxleiter.tilefinder.server;
+
+import ca.landonjw.gooeylibs2.api.page.Page;
+
+/**
+ * A paginated list of GooeyLibs pages that are only built when first shown.
+ * <p>
+ * Opening the list builds page 0; every other page is built the first time a Prev/Next button leads to it
+ * and kept afterwards, so paging back and forth does not rebuild anything. The work done to open a result
+ * is therefore bounded by one page, however many results there are.
+ */
+final class LazyPageChain {
+    interface PageFactory {
+        Page build(LazyPageChain chain, int pageIndex);
+    }
+
+    private final Page[] pages;
+    private final PageFactory factory;
+
+    LazyPageChain(int totalPages, PageFactory factory) {
+        this.pages = new Page[totalPages];
+        this.factory = factory;
+    }
+
+    int totalPages() {
+        return pages.length;
+    }
+
+    Page page(int pageIndex) {
+        Page page = pages[pageIndex];
+        if (page == null) {
+            page = factory.build(this, pageIndex);
+            pages[pageIndex] = page;
+        }
+        return page;
+    }
+}
@@ -0,0 +1,217 @@
+package com.maxleiter.tilefinder.server;
+
+import com.maxleiter.tilefinder.ServerConfig;
+import com.maxleiter.tilefinder.TileFinder;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.network.protocol.game.ClientboundLevelParticlesPacket;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Drives every server-side particle path from one tick handler.
+ * <p>
+ * Each emission keeps its arc samples and only recomputes them when the player's eye position or look
+ * direction changes. Samples are dense near the player and thin out with distance. Samples behind the
+ * player's view or beyond {@link ServerConfig#particleRenderRange} are dropped, and each path is capped
+ * at {@link ServerConfig#maxPathSamples}; those limits are what keep the traffic down. Every
+ * {@link #INTERVAL} ticks the samples go to the player wrapped in one bundle. The bundle still carries one
+ * particle packet per sample and saves no bytes; it only makes the whole path appear in the same client
+ * tick. All emissions share a per-tick budget of particle packets
+ * ({@link ServerConfig#particlePacketBudget}). They are visited round-robin starting from a rotating
+ * cursor, so when the budget runs out it is a different emission that waits each tick.
+ * <p>
+ * Emissions hold the player's UUID and dimension rather than the player, and are dropped as soon as that
+ * player is no longer online in that dimension. {@link #start} may be called from any thread; new
+ * emissions are picked up on the next server tick.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID)
+public final class ParticleEmitter {
+    private ParticleEmitter() {}
+
+    static final int INTERVAL = 5;
+    // sample spacing in blocks right at the eye; it grows by the same amount every DENSE_RANGE blocks further out
+    private static final double BASE_SPACING = 0.25;
+    private static final double DENSE_RANGE = 16.0;
+
+    private static final Queue<Emission> PENDING = new ConcurrentLinkedQueue<>();
+    private static final List<Emission> EMISSIONS = new ArrayList<>();
+    private static int cursor;
+
+    /** Start emitting a path to target; durationTicks &lt; 0 keeps it running until stopped. */
+    static Emission start(ServerPlayer player, BlockPos target, int durationTicks) {
+        long now = player.server.getTickCount();
+        Emission emission = new Emission(player.getUUID(), player.level().dimension(), target.immutable(),
+                durationTicks < 0 ? -1 : now + durationTicks, now);
+        PENDING.add(emission);
+        return emission;
+    }
+
+    /** Emissions currently running or waiting to be picked up. Call from the server thread. */
+    static int activeCount() {
+        return EMISSIONS.size() + PENDING.size();
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        for (Emission e; (e = PENDING.poll()) != null; ) EMISSIONS.add(e);
+        if (EMISSIONS.isEmpty()) return;
+        MinecraftServer server = event.getServer();
+        long now = server.getTickCount();
+        for (Iterator<Emission> it = EMISSIONS.iterator(); it.hasNext(); ) {
+            Emission e = it.next();
+            if (e.stopped || (e.expiresAt >= 0 && now >= e.expiresAt) || e.resolve(server) == null) it.remove();
+        }
+
+        int size = EMISSIONS.size();
+        if (size == 0) return;
+        int fullBudget = ServerConfig.particlePacketBudget;
+        int budget = fullBudget;
+        for (int k = 0; k < size && budget > 0; k++) {
+            Emission emission = EMISSIONS.get((cursor + k) % size);
+            if (now < emission.nextEmit) continue;
+            ServerPlayer player = emission.resolve(server);
+            emission.refreshSamples(player);
+            int count = emission.sampleCount;
+            // a path that does not fit waits for the next tick, unless it is first in line and would never fit
+            if (count > budget && budget < fullBudget) continue;
+            budget -= emission.send(player, Math.min(count, budget));
+            emission.nextEmit = now + INTERVAL;
+        }
+        cursor = (cursor + 1) % size;
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        PENDING.clear();
+        EMISSIONS.clear();
+        cursor = 0;
+    }
+
+    static final class Emission {
+        private final UUID playerId;
+        private final ResourceKey<Level> dimension;
+        private final BlockPos target;
+        private final long expiresAt;
+        private long nextEmit;
+        private volatile boolean stopped;
+
+        // xyz triples, recomputed only when the viewpoint changes
+        private double[] samples = new double[0];
+        private int sampleCount;
+        private Vec3 lastEye;
+        private Vec3 lastLook;
+
+        private Emission(UUID playerId, ResourceKey<Level> dimension, BlockPos target, long expiresAt, long nextEmit) {
+            this.playerId = playerId;
+            this.dimension = dimension;
+            this.target = target;
+            this.expiresAt = expiresAt;
+            this.nextEmit = nextEmit;
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        /** The online player this emission belongs to, or null once they left or changed dimension. */
+        private ServerPlayer resolve(MinecraftServer server) {
+            ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+            return player != null && player.level().dimension() == dimension ? player : null;
+        }
+
+        private void refreshSamples(ServerPlayer player) {
+            Vec3 eye = player.getEyePosition();
+            Vec3 look = player.getLookAngle();
+            if (eye.equals(lastEye) && look.equals(lastLook)) return;
+            lastEye = eye;
+            lastLook = look;
+
+            // offset start ~2 blocks forward & a little to the right so particles do not spawn in the camera frustum
+            Vec3 right = new Vec3(-look.z, 0, look.x).normalize();
+            Vec3 start = eye.add(look.scale(2.0)).add(right.scale(0.5));
+            Vec3 end = Vec3.atCenterOf(target);
+            double dx = end.x - start.x;
+            double dy = end.y - start.y;
+            double dz = end.z - start.z;
+            double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (dist < 0.001) {
+                sampleCount = 0;
+                return;
+            }
+
+            double bump = Math.min(4.0, dist / 3.0);
+            double range = ServerConfig.particleRenderRange;
+            int cap = ServerConfig.maxPathSamples;
+            if (samples.length < cap * 3) samples = new double[cap * 3];
+
+            // retry with wider spacing if the path would exceed the per-emission cap
+            double baseSpacing = BASE_SPACING;
+            for (int attempt = 0; attempt < 2; attempt++) {
+                int wanted = sampleArc(eye, look, start, dx, dy, dz, dist, bump, range, baseSpacing, cap);
+                if (wanted <= cap) return;
+                baseSpacing *= wanted / (double) cap;
+            }
+        }
+
+        /**
+         * Walks the arc with spacing that grows with distance from the eye, keeping only samples in front of
+         * the player and within particle render range. Stores up to cap samples and returns how many the
+         * walk produced in total.
+         */
+        private int sampleArc(Vec3 eye, Vec3 look, Vec3 start, double dx, double dy, double dz, double dist,
+                double bump, double range, double baseSpacing, int cap) {
+            int produced = 0;
+            double t = 0;
+            while (t <= 1.0) {
+                double x = start.x + dx * t;
+                double y = start.y + dy * t + Math.sin(Math.PI * t) * bump;
+                double z = start.z + dz * t;
+                double ex = x - eye.x, ey = y - eye.y, ez = z - eye.z;
+                double fromEye = Math.sqrt(ex * ex + ey * ey + ez * ez);
+                boolean inFront = ex * look.x + ey * look.y + ez * look.z >= 0;
+                if (inFront && fromEye <= range) {
+                    if (produced < cap) {
+                        samples[produced * 3] = x;
+                        samples[produced * 3 + 1] = y;
+                        samples[produced * 3 + 2] = z;
+                    }
+                    produced++;
+                }
+                double spacing = baseSpacing * (1.0 + fromEye / DENSE_RANGE);
+                t += spacing / dist;
+            }
+            sampleCount = Math.min(produced, cap);
+            return produced;
+        }
+
+        /** Send count samples as one bundle and return the number of particle packets it holds. */
+        private int send(ServerPlayer player, int count) {
+            if (count <= 0) return 0;
+            List<Packet<? super ClientGamePacketListener>> packets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                packets.add(new ClientboundLevelParticlesPacket(ParticleTypes.ELECTRIC_SPARK, true,
+                        samples[i * 3], samples[i * 3 + 1], samples[i * 3 + 2], 0, 0, 0, 0, 1));
+            }
+            player.connection.send(new ClientboundBundlePacket(packets));
+            return count;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.maxleiter.tilefinder.server;
+
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import net.minecraft.nbt.visitors.CollectFields;
+import net.minecraft.nbt.visitors.FieldSelector;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.chunk.storage.RegionFileVersion;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.storage.LevelResource;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Reads block entities straight from a dimension's saved {@code .mca} region files, so areas that are not
+ * loaded can be searched without loading them into the world.
+ * <p>
+ * Region scans memory-map their files (the world audit reads through channels instead, see
+ * {@link #channel}), and only the {@code block_entities} list of each chunk is materialised;
+ * sections, heightmaps and lighting are skipped while the NBT stream is parsed. Nothing here touches the
+ * live {@link ServerLevel} once the region folder has been resolved, so reads run on worker threads. The
+ * files only reflect the last save: recent changes in loaded chunks show up after the next autosave, and a
+ * chunk the server is rewriting while it is read may fail to parse and is counted as unreadable.
+ * <p>
+ * Saved chunks record the block entity type rather than the block, so each type is reported as its first
+ * valid block (all sign woods as one sign, for example).
+ * <p>
+ * Region scans run on a small pool of their own, so a large radius queues its region files there instead
+ * of filling the shared background executor the rest of the game relies on.
+ */
+final class RegionScanner {
+    private RegionScanner() {}
+
+    private static final int SECTOR_BYTES = 4096;
+    private static final int HEADER_BYTES = 2 * SECTOR_BYTES;
+    static final int CHUNKS_PER_REGION = 32 * 32;
+    private static final Pattern REGION_NAME = Pattern.compile("^r\\.(-?\\d+)\\.(-?\\d+)\\.mca$");
+    private static final int SCAN_THREADS = Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, 4);
+    private static final ExecutorService SCAN_EXECUTOR = createExecutor();
+
+    // idle workers exit, so the pool costs nothing between scans
+    private static ExecutorService createExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(SCAN_THREADS, SCAN_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "TileFinder-Region-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /** One {@code r.x.z.mca} file and its region coordinates. */
+    record RegionFile(Path path, int x, int z) {}
+
+    /** Chunks read from region files, and how many of those could not be decoded. */
+    record ReadStats(int chunks, int unreadable) {
+        static final ReadStats EMPTY = new ReadStats(0, 0);
+
+        ReadStats plus(ReadStats other) {
+            return new ReadStats(chunks + other.chunks, unreadable + other.unreadable);
+        }
+    }
+
+    interface ChunkVisitor {
+        /** Called once per readable chunk with its saved {@code block_entities} compounds. */
+        void visit(int chunkX, int chunkZ, ListTag blockEntities);
+    }
+
+    /** Result of {@link #scan}: everything found inside the area plus read statistics for the report. */
+    record Result(ScanSnapshot snapshot, int regions, ReadStats stats) {}
+
+    static Path regionFolder(ServerLevel level) {
+        return DimensionType.getStorageFolder(level.dimension(), level.getServer().getWorldPath(LevelResource.ROOT))
+                .resolve("region");
+    }
+
+    /** Every region file in folder, in no particular order. */
+    static List<RegionFile> list(Path folder) throws IOException {
+        List<RegionFile> files = new ArrayList<>();
+        if (!Files.isDirectory(folder)) return files;
+        try (Stream<Path> stream = Files.list(folder)) {
+            stream.forEach(path -> {
+                Matcher m = REGION_NAME.matcher(path.getFileName().toString());
+                if (m.matches()) files.add(new RegionFile(path, Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))));
+            });
+        }
+        return files;
+    }
+
+    /**
+     * Block entity type id → the block it is reported as. Built once from the frozen registries on first
+     * use, from any thread, and shared read-only between workers.
+     */
+    static Map<String, Block> blocksByType() {
+        return BlocksByType.MAP;
+    }
+
+    private static final class BlocksByType {
+        static final Map<String, Block> MAP = build();
+
+        private static Map<String, Block> build() {
+            Map<String, Block> out = new HashMap<>();
+            for (BlockEntityType<?> type : BuiltInRegistries.BLOCK_ENTITY_TYPE) {
+                ResourceLocation id = BuiltInRegistries.BLOCK_ENTITY_TYPE.getKey(type);
+                for (Block block : BuiltInRegistries.BLOCK) {
+                    if (type.isValid(block.defaultBlockState())) {
+                        out.put(id.toString(), block);
+                        break;
+                    }
+                }
+            }
+            return Collections.unmodifiableMap(out);
+        }
+    }
+
+    /**
+     * Scan every saved chunk overlapping area on the region pool, one task per region file. The level is
+     * only used up front to locate its region folder.
+     */
+    static CompletableFuture<Result> scan(ServerLevel level, BlockEntityScanner.Area area) {
+        Path folder = regionFolder(level);
+        int minRegionX = area.minChunkX() >> 5, maxRegionX = area.maxChunkX() >> 5;
+        int minRegionZ = area.minChunkZ() >> 5, maxRegionZ = area.maxChunkZ() >> 5;
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, Block> blocks = blocksByType();
+            List<CompletableFuture<Result>> tasks = new ArrayList<>();
+            for (int rx = minRegionX; rx <= maxRegionX; rx++) {
+                for (int rz = minRegionZ; rz <= maxRegionZ; rz++) {
+                    Path path = folder.resolve("r." + rx + "." + rz + ".mca");
+                    if (!Files.isRegularFile(path)) continue;
+                    RegionFile file = new RegionFile(path, rx, rz);
+                    tasks.add(CompletableFuture.supplyAsync(() -> scanRegion(file, area, blocks), SCAN_EXECUTOR));
+                }
+            }
+            return tasks;
+        }, SCAN_EXECUTOR).thenCompose(tasks -> CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> merge(tasks)));
+    }
+
+    private static Result merge(List<CompletableFuture<Result>> tasks) {
+        ScanSnapshot.Builder merged = new ScanSnapshot.Builder();
+        ReadStats stats = ReadStats.EMPTY;
+        for (CompletableFuture<Result> task : tasks) {
+            Result part = task.join();
+            for (int i = 0; i < part.snapshot().size(); i++) {
+                merged.add(part.snapshot().position(i), part.snapshot().block(i));
+            }
+            stats = stats.plus(part.stats());
+        }
+        return new Result(merged.build(), tasks.size(), stats);
+    }
+
+    private static Result scanRegion(RegionFile file, BlockEntityScanner.Area area, Map<String, Block> blocks) {
+        ScanSnapshot.Builder results = new ScanSnapshot.Builder();
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        ReadStats stats;
+        try {
+            stats = read(file, (cx, cz) -> cx >= area.minChunkX() && cx <= area.maxChunkX() && cz >= area.minChunkZ() && cz <= area.maxChunkZ(),
+                    (cx, cz, blockEntities) -> {
+                        for (int i = 0; i < blockEntities.size(); i++) {
+                            CompoundTag tag = blockEntities.getCompound(i);
+                            Block block = blocks.get(tag.getString("id"));
+                            if (block == null) continue; // type no longer registered
+                            cursor.set(tag.getInt("x"), tag.getInt("y"), tag.getInt("z"));
+                            if (area.contains(cursor)) results.add(cursor.asLong(), block);
+                        }
+                    });
+        } catch (IOException e) {
+            e.printStackTrace();
+            stats = ReadStats.EMPTY;
+        }
+        return new Result(results.build(), 1, stats);
+    }
+
+    interface ChunkFilter {
+        boolean accept(int chunkX, int chunkZ);
+    }
+
+    // grown to the largest chunk a thread has read, then reused
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(64 * 1024));
+
+    /**
+     * Absolute-offset access to one region file's bytes. Nothing depends on a position, so disjoint chunks
+     * can be read from several threads at once.
+     */
+    interface RegionBytes {
+        long size();
+
+        /** The length bytes at offset. The buffer may be reused by the calling thread's next read. */
+        ByteBuffer read(long offset, int length) throws IOException;
+    }
+
+    /** Map the whole region file read-only, or return null if it holds no chunks. */
+    static @Nullable RegionBytes map(RegionFile file) throws IOException {
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            long size = Math.min(channel.size(), Integer.MAX_VALUE);
+            if (size < HEADER_BYTES) return null;
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return new RegionBytes() {
+            @Override
+            public long size() {
+                return map.limit();
+            }
+
+            @Override
+            public ByteBuffer read(long offset, int length) throws IOException {
+                ByteBuffer buffer = readBuffer(length);
+                try {
+                    // copy out, so pages the server truncates away fail here rather than inside the decoder
+                    map.get((int) offset, buffer.array(), 0, length);
+                    return buffer;
+                } catch (InternalError e) {
+                    throw new IOException("Region file " + file.path() + " changed while mapped", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Read an open region file with positional channel reads, or return null if it holds no chunks. Unlike
+     * {@link #map}, nothing is left behind once the channel closes (mappings are only released when they are
+     * garbage collected), so memory use does not grow with the number of files read.
+     */
+    static @Nullable RegionBytes channel(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) return null;
+        return new RegionBytes() {
+            @Override
+            public long size() {
+                return size;
+            }
+
+            @Override
+            public ByteBuffer read(long offset, int length) throws IOException {
+                ByteBuffer buffer = readBuffer(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) throw new EOFException("Region file ended early");
+                }
+                return buffer.flip();
+            }
+        };
+    }
+
+    private static ByteBuffer readBuffer(int length) {
+        ByteBuffer buffer = READ_BUFFER.get();
+        if (buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(Integer.highestOneBit(length - 1) << 1);
+            READ_BUFFER.set(buffer);
+        }
+        return buffer.clear().limit(length);
+    }
+
+    /** The chunk location table of a region file: one header entry per chunk, 0 for chunks never saved. */
+    static int[] locations(RegionBytes bytes) throws IOException {
+        int[] locations = new int[CHUNKS_PER_REGION];
+        bytes.read(0, CHUNKS_PER_REGION * 4).asIntBuffer().get(locations);
+        return locations;
+    }
+
+    /**
+     * Visit the block entities of every chunk in the region file that passes filter. Chunks are filtered on
+     * their header entry, before anything is decompressed.
+     */
+    static ReadStats read(RegionFile file, ChunkFilter filter, ChunkVisitor visitor) throws IOException {
+        RegionBytes bytes = map(file);
+        return bytes == null ? ReadStats.EMPTY : read(file, bytes, locations(bytes), 0, CHUNKS_PER_REGION, filter, visitor);
+    }
+
+    /**
+     * Same as {@link #read(RegionFile, ChunkFilter, ChunkVisitor)} for the header entries in [from, to),
+     * with the location table already read. Disjoint ranges can be read concurrently.
+     */
+    static ReadStats read(RegionFile file, RegionBytes bytes, int[] locations, int from, int to, ChunkFilter filter, ChunkVisitor visitor) {
+        int chunks = 0, unreadable = 0;
+        for (int index = from; index < to; index++) {
+            int entry = locations[index];
+            if (entry == 0) continue; // chunk never saved
+            int chunkX = (file.x() << 5) + (index & 31);
+            int chunkZ = (file.z() << 5) + (index >> 5);
+            if (!filter.accept(chunkX, chunkZ)) continue;
+            chunks++;
+            ListTag blockEntities = readChunk(file, bytes, entry, chunkX, chunkZ);
+            if (blockEntities == null) {
+                unreadable++;
+            } else {
+                visitor.visit(chunkX, chunkZ, blockEntities);
+            }
+        }
+        return new ReadStats(chunks, unreadable);
+    }
+
+    // header entry: sector offset in the top 24 bits; payload: 4-byte length, 1-byte compression, data
+    private static @Nullable ListTag readChunk(RegionFile file, RegionBytes bytes, int entry, int chunkX, int chunkZ) {
+        long offset = (long) (entry >>> 8) * SECTOR_BYTES;
+        try {
+            if (offset < HEADER_BYTES || offset + 5 > bytes.size()) return null;
+            ByteBuffer head = bytes.read(offset, 5);
+            int length = head.getInt(0);
+            byte compression = head.get(4);
+            RegionFileVersion version = RegionFileVersion.fromId(compression & 0x7F);
+            if (version == null) return null;
+            // payload too large for the region file; vanilla stores it in a separate .mcc file
+            boolean external = (compression & 0x80) != 0;
+            Path externalPath = file.path().resolveSibling("c." + chunkX + "." + chunkZ + ".mcc");
+            if (external && !Files.isRegularFile(externalPath)) return null;
+            if (!external && (length <= 1 || offset + 4 + length > bytes.size())) return null;
+            CollectFields collector = new CollectFields(new FieldSelector(ListTag.TYPE, "block_entities"));
+            try (InputStream raw = external
+                    ? Files.newInputStream(externalPath)
+                    : new ByteBufInputStream(Unpooled.wrappedBuffer(bytes.read(offset + 5, length - 1)));
+                 DataInputStream in = new DataInputStream(version.wrap(raw))) {
+                NbtIo.parse(in, collector, NbtAccounter.unlimitedHeap());
+            }
+            // chunks saved before 1.18 keep block entities elsewhere and come back without the field
+            if (!(collector.getResult() instanceof CompoundTag root) || !root.contains("block_entities", Tag.TAG_LIST)) return null;
+            return root.getList("block_entities", Tag.TAG_COMPOUND);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
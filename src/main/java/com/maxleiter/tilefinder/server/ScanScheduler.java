@@ -0,0 +1,155 @@
+package com.maxleiter.tilefinder.server;
+
+import com.maxleiter.tilefinder.ServerConfig;
+import com.maxleiter.tilefinder.TileFinder;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Spreads block-entity scans across server ticks, one chunk at a time.
+ * <p>
+ * All running scans share a per-tick time budget ({@link ServerConfig#scanTickBudgetNanos}) and are
+ * advanced round-robin so one large scan cannot starve another. A scan starts stepping as soon as it is
+ * submitted, and one that fits inside what is left of the budget completes immediately without ever
+ * reporting progress. The time it used is charged against the budget of the following tick handler, so
+ * submitting does not add a second budget to the tick; only the one chunk every running scan advances per
+ * tick can go over.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID)
+public final class ScanScheduler {
+    private ScanScheduler() {}
+
+    interface Listener {
+        void onProgress(int scannedChunks, int totalChunks);
+
+        void onComplete(ScanSnapshot results);
+    }
+
+    private static final Map<UUID, Job> JOBS = new HashMap<>();
+    // scan time spent by submit() since the last tick handler ran, taken out of that handler's budget
+    private static long submitNanos;
+
+    /** Start a scan for the player, replacing any scan they already have running. */
+    static void submit(ServerPlayer player, int radius, Listener listener) {
+        cancel(player);
+        Job job = new Job(player, radius, listener);
+        long start = System.nanoTime();
+        long deadline = start + ServerConfig.scanTickBudgetNanos - submitNanos;
+        while (!job.isDone() && System.nanoTime() < deadline) {
+            job.step();
+        }
+        submitNanos += System.nanoTime() - start;
+        if (job.isDone()) {
+            listener.onComplete(job.results.build());
+            return;
+        }
+        JOBS.put(player.getUUID(), job);
+        listener.onProgress(job.next, job.chunks.length);
+    }
+
+    static void cancel(ServerPlayer player) {
+        JOBS.remove(player.getUUID());
+    }
+
+    /** Cancel the player's scan only if it is still the one reporting to this listener. */
+    static void cancel(ServerPlayer player, Listener listener) {
+        JOBS.computeIfPresent(player.getUUID(), (uuid, job) -> job.listener == listener ? null : job);
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        long spent = submitNanos;
+        submitNanos = 0;
+        if (JOBS.isEmpty()) return;
+        long deadline = System.nanoTime() + ServerConfig.scanTickBudgetNanos - spent;
+        List<Job> finished = new ArrayList<>();
+        List<Job> active = new ArrayList<>(JOBS.values());
+        active.removeIf(job -> {
+            if (job.isStale()) {
+                JOBS.remove(job.player.getUUID());
+                return true;
+            }
+            return false;
+        });
+
+        // every job advances at least one chunk per tick, then keeps going round-robin while budget remains
+        do {
+            Iterator<Job> it = active.iterator();
+            while (it.hasNext()) {
+                Job job = it.next();
+                job.step();
+                if (job.isDone()) {
+                    it.remove();
+                    finished.add(job);
+                }
+            }
+        } while (!active.isEmpty() && System.nanoTime() < deadline);
+
+        for (Job job : active) {
+            job.listener.onProgress(job.next, job.chunks.length);
+        }
+        for (Job job : finished) {
+            JOBS.remove(job.player.getUUID(), job);
+            job.listener.onComplete(job.results.build());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        JOBS.clear();
+        submitNanos = 0;
+    }
+
+    private static final class Job {
+        private final ServerPlayer player;
+        private final ServerLevel level;
+        private final BlockEntityScanner.Area area;
+        private final Listener listener;
+        private final long[] chunks;
+        private final ScanSnapshot.Builder results = new ScanSnapshot.Builder();
+        private int next;
+
+        Job(ServerPlayer player, int radius, Listener listener) {
+            this.player = player;
+            this.level = player.serverLevel();
+            this.area = BlockEntityScanner.Area.around(level, player.blockPosition(), radius);
+            this.listener = listener;
+            int width = area.maxChunkX() - area.minChunkX() + 1;
+            int depth = area.maxChunkZ() - area.minChunkZ() + 1;
+            this.chunks = new long[width * depth];
+            int i = 0;
+            for (int cx = area.minChunkX(); cx <= area.maxChunkX(); cx++) {
+                for (int cz = area.minChunkZ(); cz <= area.maxChunkZ(); cz++) {
+                    chunks[i++] = ChunkPos.asLong(cx, cz);
+                }
+            }
+        }
+
+        void step() {
+            long packed = chunks[next++];
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(packed), ChunkPos.getZ(packed));
+            if (chunk != null) BlockEntityScanner.scanChunk(chunk, area, results);
+        }
+
+        boolean isDone() {
+            return next >= chunks.length;
+        }
+
+        boolean isStale() {
+            return player.hasDisconnected() || player.serverLevel() != level;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.maxleiter.tilefinder.server;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Block;
+
+import java.util.Arrays;
+
+/**
+ * Immutable capture of block-entity positions (packed with {@link BlockPos#asLong}) and their block types,
+ * taken on the server thread. Everything derived from it — grouping, registry names, filtering, sorting —
+ * can then run on a worker without touching the level.
+ */
+final class ScanSnapshot {
+    private final long[] positions;
+    private final Block[] blocks;
+
+    private ScanSnapshot(long[] positions, Block[] blocks) {
+        this.positions = positions;
+        this.blocks = blocks;
+    }
+
+    int size() {
+        return positions.length;
+    }
+
+    long position(int index) {
+        return positions[index];
+    }
+
+    Block block(int index) {
+        return blocks[index];
+    }
+
+    static final class Builder {
+        private long[] positions = new long[64];
+        private Block[] blocks = new Block[64];
+        private int size;
+
+        void add(long position, Block block) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                blocks = Arrays.copyOf(blocks, size * 2);
+            }
+            positions[size] = position;
+            blocks[size] = block;
+            size++;
+        }
+
+        ScanSnapshot build() {
+            return new ScanSnapshot(Arrays.copyOf(positions, size), Arrays.copyOf(blocks, size));
+        }
+    }
+}
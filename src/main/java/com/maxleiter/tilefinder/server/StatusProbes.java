@@ -0,0 +1,153 @@
+package com.maxleiter.tilefinder.server;
+
+import com.maxleiter.tilefinder.TileFinder;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.RandomizableContainer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.AbstractFurnaceBlockEntity;
+import net.minecraft.world.level.block.entity.BaseContainerBlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.items.IItemHandler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Produces the short status line shown under TileFinder buttons ("Progress: 40%", "Slots: 12").
+ * <p>
+ * Probes are matched against the block entity's class, most recently registered first, and read values
+ * straight from the object. Only when none of them handles a block entity is it serialized to NBT and
+ * inspected with key heuristics. Results are cached per position for {@link #CACHE_TICKS} ticks, since the same block
+ * entity is usually shown on a top-level button and again on its position page.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID)
+public final class StatusProbes {
+    private StatusProbes() {}
+
+    /** Returns the status text, "" for "handled, nothing to show", or null to let the next probe try. */
+    @FunctionalInterface
+    public interface Probe<T extends BlockEntity> {
+        @Nullable String read(ServerLevel level, T be);
+    }
+
+    private record Registration<T extends BlockEntity>(Class<T> type, Probe<T> probe) {
+        @Nullable String tryRead(ServerLevel level, BlockEntity be) {
+            return type.isInstance(be) ? probe.read(level, type.cast(be)) : null;
+        }
+    }
+
+    private record Cached(long gameTime, String summary) {}
+
+    private static final int CACHE_TICKS = 10;
+    private static final List<Registration<?>> PROBES = new ArrayList<>();
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<Cached>> CACHE = new HashMap<>();
+
+    static {
+        PROBES.add(new Registration<>(AbstractFurnaceBlockEntity.class, (level, furnace) -> {
+            if (furnace.cookingProgress > 0 && furnace.cookingTotalTime > 0) {
+                return "Progress: " + percent(furnace.cookingProgress, furnace.cookingTotalTime) + "%";
+            }
+            if (furnace.litTime > 0 && furnace.litDuration > 0) {
+                return "Fuel: " + percent(furnace.litTime, furnace.litDuration) + "%";
+            }
+            return null;
+        }));
+        PROBES.add(new Registration<>(BaseContainerBlockEntity.class, (level, container) -> {
+            // reading slots of an unopened loot container would roll its loot table
+            if (container instanceof RandomizableContainer loot && loot.getLootTable() != null) return "";
+            int used = 0;
+            for (int i = 0; i < container.getContainerSize(); i++) {
+                if (!container.getItem(i).isEmpty()) used++;
+            }
+            return "Slots: " + used;
+        }));
+        PROBES.add(new Registration<>(BlockEntity.class, (level, be) -> {
+            IItemHandler handler = level.getCapability(Capabilities.ItemHandler.BLOCK, be.getBlockPos(), be.getBlockState(), be, null);
+            if (handler == null) return null;
+            int used = 0;
+            for (int i = 0; i < handler.getSlots(); i++) {
+                if (!handler.getStackInSlot(i).isEmpty()) used++;
+            }
+            return "Slots: " + used;
+        }));
+    }
+
+    /** Register a probe for a block entity class. It takes precedence over built-in and earlier probes. */
+    public static <T extends BlockEntity> void register(Class<T> type, Probe<T> probe) {
+        PROBES.add(0, new Registration<>(type, probe));
+    }
+
+    static String summary(ServerLevel level, BlockPos pos) {
+        if (!level.isLoaded(pos)) return ""; // getBlockEntity would load the chunk
+        long now = level.getGameTime();
+        Long2ObjectMap<Cached> cache = CACHE.computeIfAbsent(level.dimension(), k -> new Long2ObjectOpenHashMap<>());
+        Cached cached = cache.get(pos.asLong());
+        if (cached != null && now - cached.gameTime() < CACHE_TICKS) return cached.summary();
+
+        BlockEntity be = level.getBlockEntity(pos);
+        String summary = (be == null) ? "" : probe(level, be);
+        if (cache.size() > 4096) cache.values().removeIf(c -> now - c.gameTime() >= CACHE_TICKS);
+        cache.put(pos.asLong(), new Cached(now, summary));
+        return summary;
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) CACHE.remove(level.dimension());
+    }
+
+    private static String probe(ServerLevel level, BlockEntity be) {
+        for (Registration<?> registration : PROBES) {
+            String summary = registration.tryRead(level, be);
+            if (summary != null) return summary;
+        }
+        return fromNbt(level, be);
+    }
+
+    private static String fromNbt(ServerLevel level, BlockEntity be) {
+        CompoundTag tag = be.saveWithoutMetadata(level.registryAccess());
+        // heuristics across common modded keys
+        int cook = getShortOrInt(tag, "cookTime", "cooking_time_spent");
+        int cookTotal = getShortOrInt(tag, "cookTimeTotal", "cooking_total_time");
+        int lit = getShortOrInt(tag, "BurnTime", "lit_time_remaining", "lit_time");
+        int litTotal = getShortOrInt(tag, "CookTime", "lit_total_time");
+        if (cookTotal > 0) {
+            return "Progress: " + percent(cook, cookTotal) + "%";
+        }
+        if (litTotal > 0) {
+            return "Fuel: " + percent(lit, litTotal) + "%";
+        }
+        if (tag.contains("Items")) {
+            ListTag items = tag.getList("Items", 10); // compounds
+            return "Slots: " + items.size();
+        }
+        return "";
+    }
+
+    private static int percent(int value, int total) {
+        return (int) Math.round((value / (double) total) * 100.0);
+    }
+
+    private static int getShortOrInt(CompoundTag tag, String... keys) {
+        for (String k : keys) {
+            if (tag.contains(k)) {
+                try { return tag.getInt(k); } catch (Throwable t) {}
+                try { return tag.getShort(k); } catch (Throwable t) {}
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,210 @@
+package com.maxleiter.tilefinder.server;
+
+import com.maxleiter.tilefinder.TickCostPayload;
+import com.maxleiter.tilefinder.TileFinder;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.TickingBlockEntity;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforge.network.PacketDistributor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Opt-in sampler of how much server tick time each ticking block entity costs.
+ * <p>
+ * While a window is running, every entry of each level's block-entity ticker lists is wrapped in a
+ * {@link TimedTicker} that adds its elapsed nanos to a primitive map keyed by packed position, so the hot
+ * path allocates nothing once the map has seen a position. New tickers are wrapped at the start of the tick
+ * after they appear, and every wrapper is removed again when the window ends. Wrapping keeps the chunk's own
+ * rebindable wrapper underneath, so block entity replacement and removal behave as usual.
+ * <p>
+ * The last finished window per dimension is kept for the GooeyLibs UI and pushed to modded clients near each
+ * player for the TileFinder screen.
+ */
+@EventBusSubscriber(modid = TileFinder.MODID)
+public final class TickProfiler {
+    private TickProfiler() {}
+
+    /** Client payloads only carry costs within this many blocks of the player (the screen's max radius). */
+    private static final int SYNC_RADIUS = 128;
+
+    /** Sampled tick cost per position over one window. */
+    static final class Result {
+        private final Long2LongOpenHashMap nanos = new Long2LongOpenHashMap();
+        private final Long2ObjectMap<String> types = new Long2ObjectOpenHashMap<>();
+        private int ticks;
+
+        int ticks() {
+            return ticks;
+        }
+
+        /** Average server time per tick spent ticking the block entity at pos, in microseconds. */
+        double microsPerTick(long pos) {
+            return ticks == 0 ? 0 : nanos.get(pos) / 1000.0 / ticks;
+        }
+
+        Long2LongMap nanos() {
+            return nanos;
+        }
+
+        @Nullable String type(long pos) {
+            return types.get(pos);
+        }
+    }
+
+    private static int remainingTicks;
+    private static final Map<ResourceKey<Level>, Result> ACTIVE = new HashMap<>();
+    private static final Map<ResourceKey<Level>, Result> LAST = new HashMap<>();
+    private static @Nullable Consumer<Map<ResourceKey<Level>, Result>> onFinish;
+
+    static boolean isRunning() {
+        return remainingTicks > 0;
+    }
+
+    /** Start a window of ticks; returns false if one is already running. onFinish runs on the server thread. */
+    static boolean start(int ticks, Consumer<Map<ResourceKey<Level>, Result>> onFinish) {
+        if (isRunning()) return false;
+        ACTIVE.clear();
+        remainingTicks = ticks;
+        TickProfiler.onFinish = onFinish;
+        return true;
+    }
+
+    /** Costs from the last finished window in this dimension, or null if none has run. */
+    static @Nullable Result last(ResourceKey<Level> dimension) {
+        return LAST.get(dimension);
+    }
+
+    @SubscribeEvent
+    public static void onLevelTickPre(LevelTickEvent.Pre event) {
+        if (!isRunning() || !(event.getLevel() instanceof ServerLevel level)) return;
+        Result result = ACTIVE.computeIfAbsent(level.dimension(), k -> new Result());
+        result.ticks++;
+        wrap(level.blockEntityTickers, result);
+        wrap(level.pendingBlockEntityTickers, result);
+    }
+
+    @SubscribeEvent
+    public static void onServerTickPost(ServerTickEvent.Post event) {
+        if (!isRunning() || --remainingTicks > 0) return;
+        MinecraftServer server = event.getServer();
+        for (ServerLevel level : server.getAllLevels()) {
+            unwrap(level.blockEntityTickers);
+            unwrap(level.pendingBlockEntityTickers);
+        }
+        LAST.putAll(ACTIVE);
+        Map<ResourceKey<Level>, Result> finished = new HashMap<>(ACTIVE);
+        ACTIVE.clear();
+        sync(server);
+        Consumer<Map<ResourceKey<Level>, Result>> callback = onFinish;
+        onFinish = null;
+        if (callback != null) callback.accept(finished);
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        if (isRunning()) {
+            for (ServerLevel level : event.getServer().getAllLevels()) {
+                unwrap(level.blockEntityTickers);
+                unwrap(level.pendingBlockEntityTickers);
+            }
+        }
+        remainingTicks = 0;
+        onFinish = null;
+        ACTIVE.clear();
+        LAST.clear();
+    }
+
+    private static void wrap(List<TickingBlockEntity> tickers, Result result) {
+        for (ListIterator<TickingBlockEntity> it = tickers.listIterator(); it.hasNext(); ) {
+            TickingBlockEntity ticker = it.next();
+            if (ticker instanceof TimedTicker) continue;
+            long pos = ticker.getPos().asLong();
+            result.types.put(pos, ticker.getType());
+            it.set(new TimedTicker(ticker, pos, result.nanos));
+        }
+    }
+
+    private static void unwrap(List<TickingBlockEntity> tickers) {
+        for (ListIterator<TickingBlockEntity> it = tickers.listIterator(); it.hasNext(); ) {
+            if (it.next() instanceof TimedTicker timed) it.set(timed.delegate);
+        }
+    }
+
+    // only players whose client registered the channel can receive the payload
+    private static void sync(MinecraftServer server) {
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            if (!player.connection.hasChannel(TickCostPayload.TYPE)) continue;
+            Result result = LAST.get(player.level().dimension());
+            if (result == null) continue;
+            BlockPos center = player.blockPosition();
+            long radiusSq = (long) SYNC_RADIUS * SYNC_RADIUS;
+            LongArrayList positions = new LongArrayList();
+            for (Long2LongMap.Entry e : result.nanos.long2LongEntrySet()) {
+                long dx = BlockPos.getX(e.getLongKey()) - center.getX();
+                long dy = BlockPos.getY(e.getLongKey()) - center.getY();
+                long dz = BlockPos.getZ(e.getLongKey()) - center.getZ();
+                if (dx * dx + dy * dy + dz * dz <= radiusSq) positions.add(e.getLongKey());
+            }
+            float[] micros = new float[positions.size()];
+            for (int i = 0; i < micros.length; i++) micros[i] = (float) result.microsPerTick(positions.getLong(i));
+            PacketDistributor.sendToPlayer(player, new TickCostPayload(player.level().dimension().location(), positions.toLongArray(), micros));
+        }
+    }
+
+    private static final class TimedTicker implements TickingBlockEntity {
+        private final TickingBlockEntity delegate;
+        private final long pos;
+        private final Long2LongOpenHashMap nanos;
+
+        TimedTicker(TickingBlockEntity delegate, long pos, Long2LongOpenHashMap nanos) {
+            this.delegate = delegate;
+            this.pos = pos;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public void tick() {
+            long start = System.nanoTime();
+            try {
+                delegate.tick();
+            } finally {
+                nanos.addTo(pos, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public boolean isRemoved() {
+            return delegate.isRemoved();
+        }
+
+        @Override
+        public BlockPos getPos() {
+            return delegate.getPos();
+        }
+
+        @Override
+        public String getType() {
+            return delegate.getType();
+        }
+    }
+}
@@ -6,23 +6,87 @@ import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.DimensionArgument;
+import net.minecraft.ChatFormatting;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.ClickEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.HoverEvent;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.storage.LevelResource;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
 @EventBusSubscriber(modid = TileFinder.MODID)
 public final class TileFinderCommands {
     private TileFinderCommands() {}
 
+    private static final int GLOBAL_TYPES_SHOWN = 10;
+    private static final int GLOBAL_POSITIONS_SHOWN = 5;
+    private static final int AUDIT_TOP_TYPES = 10;
+    private static final int AUDIT_TOP_MODS = 5;
+    private static final int PROFILE_TOP_POSITIONS = 10;
+    private static final int PROFILE_TOP_TYPES = 5;
+
     @SubscribeEvent
     public static void onRegister(RegisterCommandsEvent event) {
         LiteralArgumentBuilder<CommandSourceStack> root = Commands.literal("tilefinder")
                 .requires(src -> src.hasPermission(0))
                 .then(Commands.literal("clear")
                         .executes(ctx -> clear(ctx.getSource())))
+                .then(Commands.literal("index")
+                        .requires(src -> src.hasPermission(2))
+                        .then(Commands.literal("check")
+                                .executes(ctx -> checkIndex(ctx.getSource(), Config.defaultRadius))
+                                .then(Commands.argument("radius", IntegerArgumentType.integer(1, 128))
+                                        .executes(ctx -> checkIndex(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "radius"))))))
+                .then(Commands.literal("region")
+                        .requires(src -> src.hasPermission(2))
+                        .then(Commands.argument("radius", IntegerArgumentType.integer(1, 4096))
+                                .executes(ctx -> openRegion(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "radius"), null))
+                                .then(Commands.argument("filter", StringArgumentType.greedyString())
+                                        .executes(ctx -> openRegion(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "radius"), StringArgumentType.getString(ctx, "filter"))))))
+                .then(Commands.literal("audit")
+                        .requires(src -> src.hasPermission(2))
+                        .then(Commands.argument("dimension", DimensionArgument.dimension())
+                                .executes(ctx -> audit(ctx.getSource(), DimensionArgument.getDimension(ctx, "dimension"), null))
+                                .then(Commands.argument("filter", StringArgumentType.greedyString())
+                                        .executes(ctx -> audit(ctx.getSource(), DimensionArgument.getDimension(ctx, "dimension"), StringArgumentType.getString(ctx, "filter"))))))
+                .then(Commands.literal("global")
+                        .requires(src -> src.hasPermission(2))
+                        .then(Commands.argument("filter", StringArgumentType.greedyString())
+                                .executes(ctx -> global(ctx.getSource(), StringArgumentType.getString(ctx, "filter")))))
+                .then(Commands.literal("profile")
+                        .requires(src -> src.hasPermission(2))
+                        .executes(ctx -> profile(ctx.getSource(), 10))
+                        .then(Commands.argument("seconds", IntegerArgumentType.integer(1, 300))
+                                .executes(ctx -> profile(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "seconds")))))
+                .then(Commands.literal("stats")
+                        .requires(src -> src.hasPermission(2))
+                        .executes(ctx -> stats(ctx.getSource())))
                 .executes(ctx -> open(ctx.getSource(), Config.defaultRadius, null))
                 .then(Commands.argument("radius", IntegerArgumentType.integer(1, 128))
                         .executes(ctx -> open(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "radius"), null))
@@ -42,6 +106,178 @@ public final class TileFinderCommands {
         return Command.SINGLE_SUCCESS;
     }
 
+    private static int checkIndex(CommandSourceStack source, int radius) {
+        ServerLevel level = source.getLevel();
+        BlockPos center = BlockPos.containing(source.getPosition());
+        List<BlockEntityIndex.Mismatch> mismatches = BlockEntityIndex.check(level, BlockEntityScanner.Area.around(level, center, radius));
+        if (mismatches.isEmpty()) {
+            source.sendSuccess(() -> Component.literal("Index matches a full rescan within " + radius + " blocks.").withStyle(ChatFormatting.GREEN), false);
+            return Command.SINGLE_SUCCESS;
+        }
+        source.sendSuccess(() -> Component.literal("Index differed for " + mismatches.size() + " block types (re-indexed):").withStyle(ChatFormatting.YELLOW), false);
+        for (BlockEntityIndex.Mismatch m : mismatches) {
+            String id = BuiltInRegistries.BLOCK.getKey(m.block()).toString();
+            source.sendSuccess(() -> Component.literal(" - " + id + ": " + m.missing() + " missing, " + m.stale() + " stale"), false);
+        }
+        return mismatches.size();
+    }
+
+    private static int global(CommandSourceStack source, String filter) {
+        int total = 0;
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            String dimension = level.dimension().location().toString();
+            List<Map.Entry<Block, LongSet>> matches = new ArrayList<>();
+            for (Map.Entry<Block, LongSet> e : BlockEntitySavedData.get(level).byBlock().entrySet()) {
+                ResourceLocation id = BuiltInRegistries.BLOCK.getKey(e.getKey());
+                if (TileFinderServerUI.matchesFilter(id, e.getKey().getName().getString(), filter)) matches.add(e);
+            }
+            if (matches.isEmpty()) continue;
+            matches.sort(Comparator.comparingInt((Map.Entry<Block, LongSet> e) -> e.getValue().size()).reversed());
+            // samples are the positions nearest the source, or nearest spawn in other dimensions
+            BlockPos origin = level == source.getLevel() ? BlockPos.containing(source.getPosition()) : level.getSharedSpawnPos();
+            for (Map.Entry<Block, LongSet> e : matches) total += e.getValue().size();
+            for (Map.Entry<Block, LongSet> e : matches.subList(0, Math.min(GLOBAL_TYPES_SHOWN, matches.size()))) {
+                LongSet positions = e.getValue();
+                String id = BuiltInRegistries.BLOCK.getKey(e.getKey()).toString();
+                source.sendSuccess(() -> Component.literal("[" + dimension + "] " + id + " x" + positions.size()).withStyle(ChatFormatting.AQUA), false);
+                long[] nearest = nearest(positions, origin, GLOBAL_POSITIONS_SHOWN);
+                for (long packed : nearest) {
+                    BlockPos pos = BlockPos.of(packed);
+                    source.sendSuccess(() -> teleportLink(dimension, pos), false);
+                }
+                int more = positions.size() - nearest.length;
+                if (more > 0) source.sendSuccess(() -> Component.literal("   ... and " + more + " more").withStyle(ChatFormatting.GRAY), false);
+            }
+            int moreTypes = matches.size() - GLOBAL_TYPES_SHOWN;
+            if (moreTypes > 0) {
+                source.sendSuccess(() -> Component.literal("[" + dimension + "] ... and " + moreTypes + " more types; narrow the filter to see them")
+                        .withStyle(ChatFormatting.GRAY), false);
+            }
+        }
+        if (total == 0) {
+            source.sendSuccess(() -> Component.literal("No recorded block entities match \"" + filter + "\".").withStyle(ChatFormatting.YELLOW), false);
+        }
+        return total;
+    }
+
+    /** Up to limit positions closest to origin, nearest first, in one pass over positions. */
+    private static long[] nearest(LongSet positions, BlockPos origin, int limit) {
+        long[] best = new long[Math.min(limit, positions.size())];
+        long[] bestDist = new long[best.length];
+        int size = 0;
+        for (LongIterator it = positions.iterator(); it.hasNext(); ) {
+            long packed = it.nextLong();
+            long dx = BlockPos.getX(packed) - origin.getX();
+            long dy = BlockPos.getY(packed) - origin.getY();
+            long dz = BlockPos.getZ(packed) - origin.getZ();
+            long dist = dx * dx + dy * dy + dz * dz;
+            if (size == best.length && dist >= bestDist[size - 1]) continue;
+            int i = size == best.length ? size - 1 : size++;
+            for (; i > 0 && bestDist[i - 1] > dist; i--) {
+                best[i] = best[i - 1];
+                bestDist[i] = bestDist[i - 1];
+            }
+            best[i] = packed;
+            bestDist[i] = dist;
+        }
+        return best;
+    }
+
+    private static Component teleportLink(String dimension, BlockPos pos) {
+        String command = "/execute in " + dimension + " run tp @s " + pos.getX() + " " + (pos.getY() + 1) + " " + pos.getZ();
+        return Component.literal(" - " + pos.getX() + " " + pos.getY() + " " + pos.getZ())
+                .withStyle(style -> style.withColor(ChatFormatting.WHITE)
+                        .withClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, command))
+                        .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Component.literal("Click to fill in a teleport command"))));
+    }
+
+    private static int audit(CommandSourceStack source, ServerLevel level, String filter) {
+        CompletableFuture<WorldAudit.Report> audit = WorldAudit.start(level, filter);
+        if (audit == null) {
+            source.sendFailure(Component.literal("An audit is already running."));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.literal("Auditing saved region files of " + level.dimension().location() + "\u2026").withStyle(ChatFormatting.GRAY), true);
+        audit.whenCompleteAsync((report, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                source.sendFailure(Component.literal("Audit failed: " + error.getMessage()));
+                return;
+            }
+            sendAuditSummary(source, report);
+        }, source.getServer());
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static void sendAuditSummary(CommandSourceStack source, WorldAudit.Report report) {
+        Path worldDir = source.getServer().getWorldPath(LevelResource.ROOT);
+        RegionScanner.ReadStats stats = report.stats();
+        source.sendSuccess(() -> Component.literal("Audit of " + report.dimension() + ": " + report.total() + " block entities in "
+                + stats.chunks() + " chunks (" + report.regions() + " region files, " + report.millis() + " ms)").withStyle(ChatFormatting.GREEN), true);
+        if (stats.unreadable() > 0) {
+            source.sendSuccess(() -> Component.literal(stats.unreadable() + " chunks could not be read").withStyle(ChatFormatting.YELLOW), false);
+        }
+        sendTop(source, "Top types:", report.byType(), AUDIT_TOP_TYPES);
+        sendTop(source, "Top mods:", report.byMod(), AUDIT_TOP_MODS);
+        source.sendSuccess(() -> Component.literal("Report: " + worldDir.relativize(report.csv()) + ", " + worldDir.relativize(report.json())).withStyle(ChatFormatting.GRAY), false);
+    }
+
+    private static void sendTop(CommandSourceStack source, String title, List<WorldAudit.Count> counts, int limit) {
+        if (counts.isEmpty()) return;
+        source.sendSuccess(() -> Component.literal(title).withStyle(ChatFormatting.AQUA), false);
+        for (WorldAudit.Count c : counts.subList(0, Math.min(limit, counts.size()))) {
+            source.sendSuccess(() -> Component.literal(" - " + c.key() + ": " + c.count()), false);
+        }
+    }
+
+    private static int profile(CommandSourceStack source, int seconds) {
+        if (!TickProfiler.start(seconds * 20, results -> sendProfileSummary(source, results))) {
+            source.sendFailure(Component.literal("A tick profile is already running."));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.literal("Sampling block entity tick times for " + seconds + "s\u2026").withStyle(ChatFormatting.GRAY), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static void sendProfileSummary(CommandSourceStack source, Map<ResourceKey<Level>, TickProfiler.Result> results) {
+        record Sample(String dimension, long pos, String type, double micros) {}
+        List<Sample> samples = new ArrayList<>();
+        Object2DoubleOpenHashMap<String> byType = new Object2DoubleOpenHashMap<>();
+        results.forEach((dimension, result) -> {
+            for (Long2LongMap.Entry e : result.nanos().long2LongEntrySet()) {
+                String type = Objects.requireNonNullElse(result.type(e.getLongKey()), "?");
+                double micros = result.microsPerTick(e.getLongKey());
+                samples.add(new Sample(dimension.location().toString(), e.getLongKey(), type, micros));
+                byType.addTo(type, micros);
+            }
+        });
+        double total = samples.stream().mapToDouble(Sample::micros).sum();
+        source.sendSuccess(() -> Component.literal(String.format(Locale.ROOT, "Tick profile: %d block entities, %.2f ms/t in total",
+                samples.size(), total / 1000.0)).withStyle(ChatFormatting.GREEN), true);
+
+        samples.sort(Comparator.comparingDouble(Sample::micros).reversed());
+        source.sendSuccess(() -> Component.literal("Costliest positions:").withStyle(ChatFormatting.AQUA), false);
+        for (Sample sample : samples.subList(0, Math.min(PROFILE_TOP_POSITIONS, samples.size()))) {
+            BlockPos pos = BlockPos.of(sample.pos());
+            source.sendSuccess(() -> Component.literal(String.format(Locale.ROOT, "%.1f \u00b5s/t %s", sample.micros(), sample.type()))
+                    .append(teleportLink(sample.dimension(), pos)), false);
+        }
+
+        List<Object2DoubleMap.Entry<String>> types = new ArrayList<>(byType.object2DoubleEntrySet());
+        types.sort(Comparator.comparingDouble((Object2DoubleMap.Entry<String> e) -> e.getDoubleValue()).reversed());
+        source.sendSuccess(() -> Component.literal("Costliest types:").withStyle(ChatFormatting.AQUA), false);
+        for (Object2DoubleMap.Entry<String> e : types.subList(0, Math.min(PROFILE_TOP_TYPES, types.size()))) {
+            source.sendSuccess(() -> Component.literal(String.format(Locale.ROOT, " - %s: %.1f \u00b5s/t", e.getKey(), e.getDoubleValue())), false);
+        }
+    }
+
+    private static int stats(CommandSourceStack source) {
+        int sessions = ServerPathHighlighter.activeSessions();
+        int tasks = ServerPathHighlighter.activeTasks();
+        source.sendSuccess(() -> Component.literal("Path highlights: " + sessions + " persistent sessions, " + tasks + " particle tasks"), false);
+        return tasks;
+    }
+
     private static int open(CommandSourceStack source, int radius, String filter) {
         ServerPlayer player;
         try {
@@ -52,4 +288,15 @@ public final class TileFinderCommands {
         TileFinderServerUI.open(player, radius, filter);
         return Command.SINGLE_SUCCESS;
     }
-} 
\ No newline at end of file
+
+    private static int openRegion(CommandSourceStack source, int radius, String filter) {
+        ServerPlayer player;
+        try {
+            player = source.getPlayerOrException();
+        } catch (Exception ignored) {
+            return Command.SINGLE_SUCCESS; // must be player context
+        }
+        TileFinderServerUI.openFromRegionFiles(player, radius, filter);
+        return Command.SINGLE_SUCCESS;
+    }
+}
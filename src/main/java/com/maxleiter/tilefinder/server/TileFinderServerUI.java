@@ -1,18 +1,19 @@
 package com.maxleiter.tilefinder.server;
 
+import com.maxleiter.tilefinder.ServerConfig;
 import ca.landonjw.gooeylibs2.api.UIManager;
 import ca.landonjw.gooeylibs2.api.button.ButtonAction;
 import ca.landonjw.gooeylibs2.api.button.GooeyButton;
 import ca.landonjw.gooeylibs2.api.button.linked.LinkType;
-import ca.landonjw.gooeylibs2.api.button.linked.LinkedPageButton;
 import ca.landonjw.gooeylibs2.api.page.GooeyPage;
-import ca.landonjw.gooeylibs2.api.page.LinkedPage;
 import ca.landonjw.gooeylibs2.api.page.Page;
 import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrays;
 import net.minecraft.ChatFormatting;
+import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.RegistryAccess;
-import net.minecraft.core.registries.Registries;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
@@ -20,26 +21,19 @@ import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
-// NBT inspection
-import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.ListTag;
-import net.minecraft.nbt.StringTag;
-
 /**
  * Server-side (vanilla friendly) TileFinder UI backed by GooeyLibs.
  * <p>
@@ -61,109 +55,227 @@ public final class TileFinderServerUI {
     }
 
     public static void open(@NotNull ServerPlayer player, int radius, @Nullable String filterRaw) {
+        if (ServerConfig.useIndex) {
+            ServerLevel level = player.serverLevel();
+            classifyAndShow(player, BlockEntityIndex.query(level, BlockEntityScanner.Area.around(level, player.blockPosition(), radius)), radius, filterRaw,
+                    (p, filter) -> open(p, radius, filter));
+        } else {
+            ScanScheduler.submit(player, radius, new ScanProgressView(player, radius, filterRaw));
+        }
+    }
+
+    /**
+     * Like {@link #open}, but reads the dimension's saved region files instead of loaded chunks, so the
+     * whole radius is covered whether or not it is loaded. Results reflect the last save.
+     */
+    public static void openFromRegionFiles(@NotNull ServerPlayer player, int radius, @Nullable String filterRaw) {
         ServerLevel level = player.serverLevel();
-        BlockPos center = player.blockPosition();
+        player.displayClientMessage(Component.literal("Reading region files within " + radius + " blocks\u2026").withStyle(ChatFormatting.GRAY), false);
+        RegionScanner.scan(level, BlockEntityScanner.Area.around(level, player.blockPosition(), radius))
+                .whenCompleteAsync((result, error) -> {
+                    if (player.hasDisconnected()) return;
+                    if (error != null) {
+                        error.printStackTrace();
+                        player.displayClientMessage(Component.literal("TileFinder region scan failed: " + error.getMessage()).withStyle(ChatFormatting.RED), false);
+                        return;
+                    }
+                    RegionScanner.ReadStats stats = result.stats();
+                    String report = "Read " + stats.chunks() + " saved chunks from " + result.regions() + " region files: "
+                            + result.snapshot().size() + " block entities";
+                    if (stats.unreadable() > 0) report += ", " + stats.unreadable() + " chunks unreadable";
+                    player.displayClientMessage(Component.literal(report).withStyle(stats.unreadable() > 0 ? ChatFormatting.YELLOW : ChatFormatting.GREEN), false);
+                    classifyAndShow(player, result.snapshot(), radius, filterRaw, reclassify(result.snapshot(), radius));
+                }, player.server);
+    }
 
-        Map<Block, List<BlockPos>> found = scan(level, center, radius);
-        if (found.isEmpty()) {
-            player.displayClientMessage(Component.literal("No block entities found within " + radius + " blocks.").withStyle(ChatFormatting.RED), false);
-            return;
-        }
+    /**
+     * How Back and Clear Filter rebuild the block list: live results rescan loaded chunks, region-file results
+     * re-classify the snapshot already read instead of reading the files again.
+     */
+    @FunctionalInterface
+    private interface Reopen {
+        void open(ServerPlayer player, @Nullable String filter);
+    }
 
-        String filter = (filterRaw == null || filterRaw.isBlank()) ? null : filterRaw.trim();
-        if (filter != null) {
-            found = applyFilter(player, found, filter);
-            if (found.isEmpty()) {
-                player.displayClientMessage(Component.literal("No block entities found within " + radius + " blocks.").withStyle(ChatFormatting.RED), false);
-                return;
+    private static Reopen reclassify(ScanSnapshot snapshot, int radius) {
+        return new Reopen() {
+            @Override
+            public void open(ServerPlayer player, @Nullable String filter) {
+                classifyAndShow(player, snapshot, radius, filter, this);
             }
+        };
+    }
+
+    /**
+     * Groups, names, filters and sorts the snapshot on a background worker, then opens the result back on
+     * the server thread.
+     */
+    private static void classifyAndShow(ServerPlayer player, ScanSnapshot snapshot, int radius, @Nullable String filterRaw, Reopen reopen) {
+        String filter = (filterRaw == null || filterRaw.isBlank()) ? null : filterRaw.trim();
+        TickProfiler.Result costs = TickProfiler.last(player.serverLevel().dimension());
+        CompletableFuture.supplyAsync(() -> classify(snapshot, filter, costs), Util.backgroundExecutor())
+                .whenCompleteAsync((groups, error) -> {
+                    if (player.hasDisconnected()) return;
+                    if (error != null) {
+                        error.printStackTrace();
+                        player.displayClientMessage(Component.literal("TileFinder scan failed: " + error.getMessage()).withStyle(ChatFormatting.RED), false);
+                        return;
+                    }
+                    show(player, groups, radius, filter, reopen);
+                }, player.server);
+    }
+
+    private static void show(ServerPlayer player, List<BlockGroup> groups, int radius, @Nullable String filter, Reopen reopen) {
+        if (groups.isEmpty()) {
+            player.displayClientMessage(Component.literal("No block entities found within " + radius + " blocks.").withStyle(ChatFormatting.RED), false);
+            return;
         }
 
-        Page first = buildPages(player, found, radius, filter);
+        Page first = buildPages(player, groups, radius, filter, false, reopen);
         UIManager.openUIForcefully(player, first);
     }
 
     // ----------------------------------------------------------------------------------------------------
-    // Scan helpers
+    // Scan progress
     // ----------------------------------------------------------------------------------------------------
-    private static Map<Block, List<BlockPos>> scan(ServerLevel level, BlockPos center, int radius) {
-        Map<Block, List<BlockPos>> results = new HashMap<>();
-        int minX = center.getX() - radius;
-        int maxX = center.getX() + radius;
-        int minY = Math.max(level.getMinBuildHeight(), center.getY() - radius);
-        int maxY = Math.min(level.getMaxBuildHeight() - 1, center.getY() + radius);
-        int minZ = center.getZ() - radius;
-        int maxZ = center.getZ() + radius;
-
-        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
-        for (int x = minX; x <= maxX; x++) {
-            for (int y = minY; y <= maxY; y++) {
-                for (int z = minZ; z <= maxZ; z++) {
-                    cursor.set(x, y, z);
-                    BlockEntity be = level.getBlockEntity(cursor);
-                    if (be == null) continue;
-                    BlockState state = level.getBlockState(cursor);
-                    Block block = state.getBlock();
-                    results.computeIfAbsent(block, b -> new ArrayList<>()).add(cursor.immutable());
-                }
+
+    /**
+     * Placeholder page shown while a scan is spread over several ticks. Closing it cancels the scan; once
+     * the scan completes the real result pages replace it.
+     */
+    private static final class ScanProgressView implements ScanScheduler.Listener {
+        private final ServerPlayer player;
+        private final int radius;
+        private final @Nullable String filter;
+        private GooeyButton progressButton;
+        private int lastScanned = -1;
+        private boolean completed;
+
+        ScanProgressView(ServerPlayer player, int radius, @Nullable String filter) {
+            this.player = player;
+            this.radius = radius;
+            this.filter = filter;
+        }
+
+        @Override
+        public void onProgress(int scannedChunks, int totalChunks) {
+            if (scannedChunks == lastScanned) return;
+            lastScanned = scannedChunks;
+            ItemStack icon = new ItemStack(Items.CLOCK);
+            icon.set(net.minecraft.core.component.DataComponents.CUSTOM_NAME,
+                    Component.literal("Scanning\u2026 " + scannedChunks + "/" + totalChunks + " chunks").withStyle(s -> s.withItalic(false).withColor(ChatFormatting.AQUA)));
+            if (progressButton != null) {
+                progressButton.setDisplay(icon);
+                return;
             }
+
+            progressButton = GooeyButton.of(icon);
+            ItemStack filler = new ItemStack(Items.GRAY_STAINED_GLASS_PANE);
+            filler.set(net.minecraft.core.component.DataComponents.CUSTOM_NAME, Component.literal(" "));
+            Page page = GooeyPage.builder()
+                    .template(ChestTemplate.builder(3).fill(GooeyButton.of(filler)).set(13, progressButton).build())
+                    .title(Component.literal("TileFinder (" + radius + ")"))
+                    .onClose(action -> {
+                        if (!completed) ScanScheduler.cancel(player, this);
+                    })
+                    .build();
+            UIManager.openUIForcefully(player, page);
+        }
+
+        @Override
+        public void onComplete(ScanSnapshot results) {
+            completed = true;
+            if (progressButton != null) UIManager.closeUI(player);
+            classifyAndShow(player, results, radius, filter, (p, f) -> open(p, radius, f));
         }
-        return results;
     }
 
     // ----------------------------------------------------------------------------------------------------
-    // Filtering
+    // Classification (runs off the server thread)
     // ----------------------------------------------------------------------------------------------------
-    private static Map<Block, List<BlockPos>> applyFilter(ServerPlayer player, Map<Block, List<BlockPos>> input, String filterRaw) {
+
+    /**
+     * All positions of one block type, packed with {@link BlockPos#asLong}, with its registry id and display
+     * name resolved once. Positions are only unpacked into {@link BlockPos} for buttons that get rendered.
+     */
+    private record BlockGroup(Block block, ResourceLocation id, String name, long[] positions,
+                              @Nullable TickProfiler.Result costs, double tickMicros) {
+        boolean sampled() {
+            return tickMicros >= 0;
+        }
+    }
+
+    private static List<BlockGroup> classify(ScanSnapshot snapshot, @Nullable String filter, @Nullable TickProfiler.Result costs) {
+        Map<Block, LongArrayList> byBlock = new IdentityHashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            byBlock.computeIfAbsent(snapshot.block(i), b -> new LongArrayList()).add(snapshot.position(i));
+        }
+
+        List<BlockGroup> groups = new ArrayList<>(byBlock.size());
+        byBlock.forEach((block, positions) -> {
+            long[] packed = positions.toLongArray();
+            groups.add(new BlockGroup(block, getBlockId(block), getPrettyName(block), packed, costs, tickMicros(costs, packed)));
+        });
+        List<BlockGroup> out = (filter == null) ? groups : applyFilter(groups, filter);
+        out.sort(Comparator.<BlockGroup>comparingInt(g -> g.positions().length).reversed()
+                .thenComparing(g -> g.id().toString()));
+        return out;
+    }
+
+    /** Summed tick cost of the positions in microseconds per tick, or -1 if none of them were sampled. */
+    private static double tickMicros(@Nullable TickProfiler.Result costs, long[] positions) {
+        if (costs == null) return -1;
+        double total = -1;
+        for (long pos : positions) {
+            if (costs.nanos().containsKey(pos)) total = Math.max(total, 0) + costs.microsPerTick(pos);
+        }
+        return total;
+    }
+
+    private static List<BlockGroup> applyFilter(List<BlockGroup> input, String filterRaw) {
+        List<BlockGroup> out = new ArrayList<>();
+        for (BlockGroup group : input) {
+            if (matchesFilter(group.id(), group.name(), filterRaw)) out.add(group);
+        }
+        return out;
+    }
+
+    /** Substring match on namespace, path or translated name; "@text" matches the namespace only. */
+    static boolean matchesFilter(ResourceLocation id, String name, String filterRaw) {
         String needle = filterRaw.toLowerCase(Locale.ROOT);
         boolean domainOnly = needle.startsWith("@");
         if (domainOnly) needle = needle.substring(1); // @modid syntax => domain match
 
-        Map<Block, List<BlockPos>> out = new LinkedHashMap<>();
-        for (Map.Entry<Block, List<BlockPos>> e : input.entrySet()) {
-            Block block = e.getKey();
-            ResourceLocation id = getBlockId(player, block);
-            String name = getPrettyName(block).toLowerCase(Locale.ROOT);
-            String domain = id.getNamespace().toLowerCase(Locale.ROOT);
-            String path = id.getPath().toLowerCase(Locale.ROOT);
-
-            boolean match;
-            if (domainOnly) {
-                match = domain.contains(needle);
-            } else {
-                match = domain.contains(needle) || path.contains(needle) || name.contains(needle);
-            }
-            if (match) out.put(block, e.getValue());
-        }
-        return out;
+        String domain = id.getNamespace().toLowerCase(Locale.ROOT);
+        if (domainOnly) return domain.contains(needle);
+        return domain.contains(needle)
+                || id.getPath().toLowerCase(Locale.ROOT).contains(needle)
+                || name.toLowerCase(Locale.ROOT).contains(needle);
     }
 
     // ----------------------------------------------------------------------------------------------------
     // UI construction (paginated top-level list)
     // ----------------------------------------------------------------------------------------------------
-    private static Page buildPages(ServerPlayer player, Map<Block, List<BlockPos>> data, int radius, @Nullable String filter) {
-        List<Map.Entry<Block, List<BlockPos>>> entries = new ArrayList<>(data.entrySet());
-        entries.sort(Comparator.<Map.Entry<Block, List<BlockPos>>>comparingInt(e -> e.getValue().size()).reversed()
-                .thenComparing(e -> getBlockId(player, e.getKey()).toString()));
-
+    private static Page buildPages(ServerPlayer player, List<BlockGroup> groups, int radius, @Nullable String filter, boolean byTickCost, Reopen reopen) {
+        List<BlockGroup> entries = byTickCost ? sortByTickCost(groups) : groups;
+        boolean sampled = groups.stream().anyMatch(BlockGroup::sampled);
         final int pageSize = 5 * 9; // 5 content rows; row 6 reserved for nav
         int totalPages = (int) Math.ceil(entries.size() / (double) pageSize);
-        List<LinkedPage> pages = new ArrayList<>(totalPages);
 
         ItemStack filler = new ItemStack(Items.GRAY_STAINED_GLASS_PANE);
         filler.set(net.minecraft.core.component.DataComponents.CUSTOM_NAME, Component.literal(" "));
 
-        for (int pageIndex = 0; pageIndex < totalPages; pageIndex++) {
+        LazyPageChain chain = new LazyPageChain(totalPages, (pages, pageIndex) -> {
             int from = pageIndex * pageSize;
             int to = Math.min(entries.size(), from + pageSize);
-            List<Map.Entry<Block, List<BlockPos>>> slice = entries.subList(from, to);
+            List<BlockGroup> slice = entries.subList(from, to);
 
             ChestTemplate.Builder tmpl = ChestTemplate.builder(6); // always 6 rows for nav row
 
             // content slots 0..44
             int slot = 0;
-            for (Map.Entry<Block, List<BlockPos>> e : slice) {
-                tmpl.set(slot++, buildTopLevelButton(player, radius, filter, e.getKey(), e.getValue()));
+            for (BlockGroup group : slice) {
+                tmpl.set(slot++, buildTopLevelButton(player, radius, filter, group, byTickCost, reopen));
             }
             // fill remainder of content area with filler
             for (; slot < pageSize; slot++) {
@@ -173,50 +285,65 @@ public final class TileFinderServerUI {
             // nav row slots 45..53
             int rowStart = pageSize;
             // prev at 45 (if not first)
-            tmpl.set(rowStart + 0, (pageIndex == 0) ? GooeyButton.of(filler) : buildNavButton(LinkType.Previous));
+            tmpl.set(rowStart + 0, (pageIndex == 0) ? GooeyButton.of(filler) : buildNavButton(LinkType.Previous, pages, pageIndex - 1));
+            // sort toggle at 47, once the tick profiler has sampled something here
+            tmpl.set(rowStart + 2, sampled ? buildSortButton(player, groups, radius, filter, byTickCost, reopen) : GooeyButton.of(filler));
             // summary filter display at middle slot 49
-            tmpl.set(rowStart + 4, buildFilterButton(player, radius, filter));
+            tmpl.set(rowStart + 4, buildFilterButton(player, filter, reopen));
             // next at 52 (if not last)
-            tmpl.set(rowStart + 7, (pageIndex == totalPages - 1) ? GooeyButton.of(filler) : buildNavButton(LinkType.Next));
+            tmpl.set(rowStart + 7, (pageIndex == totalPages - 1) ? GooeyButton.of(filler) : buildNavButton(LinkType.Next, pages, pageIndex + 1));
             // help at 53
             tmpl.set(rowStart + 8, buildHelpButtonTop(player, radius, filter));
 
             // rest nav row filler for any slots we didn't explicitly populate above
             for (int i = 0; i < 9; i++) {
                 int navSlot = rowStart + i;
-                if (i == 0 || i == 4 || i == 7 || i == 8) continue; // already set
+                if (i == 0 || i == 2 || i == 4 || i == 7 || i == 8) continue; // already set
                 tmpl.set(navSlot, GooeyButton.of(filler));
             }
 
             Component title = (totalPages > 1)
-                    ? Component.literal("TileFinder (" + radius + ") {current}/{total}")
+                    ? Component.literal("TileFinder (" + radius + ") " + (pageIndex + 1) + "/" + totalPages)
                     : Component.literal("TileFinder (" + radius + ")");
 
-            LinkedPage page = LinkedPage.builder()
+            return GooeyPage.builder()
                     .template(tmpl.build())
                     .title(title)
                     .build();
-            pages.add(page);
-        }
+        });
 
-        // link them
-        for (int i = 0; i < pages.size(); i++) {
-            LinkedPage prev = (i > 0) ? pages.get(i - 1) : null;
-            LinkedPage next = (i < pages.size() - 1) ? pages.get(i + 1) : null;
-            pages.get(i).setPrevious(prev);
-            pages.get(i).setNext(next);
-        }
+        return chain.page(0);
+    }
+
+    private static List<BlockGroup> sortByTickCost(List<BlockGroup> groups) {
+        List<BlockGroup> sorted = new ArrayList<>(groups);
+        sorted.sort(Comparator.comparingDouble(BlockGroup::tickMicros).reversed());
+        return sorted;
+    }
+
+    private static GooeyButton buildSortButton(ServerPlayer opener, List<BlockGroup> groups, int radius, @Nullable String filter, boolean byTickCost, Reopen reopen) {
+        ItemStack icon = new ItemStack(byTickCost ? Items.REDSTONE : Items.HOPPER);
+        Component name = Component.literal(byTickCost ? "Sort: tick cost" : "Sort: count").withStyle(s -> s.withItalic(false).withColor(ChatFormatting.AQUA));
+        List<Component> lore = List.of(Component.literal("Click to sort by " + (byTickCost ? "count" : "tick cost")).withStyle(s -> s.withItalic(false).withColor(ChatFormatting.GRAY)));
+        setNameAndLore(icon, name, lore);
+        Consumer<ButtonAction> click = action -> UIManager.openUIForcefully((ServerPlayer) action.getPlayer(), buildPages(opener, groups, radius, filter, !byTickCost, reopen));
+        return GooeyButton.builder().display(icon).onClick(click).build();
+    }
 
-        return pages.get(0);
+    private static Component tickCostLore(double micros) {
+        return Component.literal(String.format(Locale.ROOT, "Tick: %.1f \u00b5s/t", micros)).withStyle(s -> s.withItalic(false).withColor(ChatFormatting.RED));
     }
 
-    private static GooeyButton buildNavButton(LinkType type) {
+    private static GooeyButton buildNavButton(LinkType type, LazyPageChain pages, int targetIndex) {
         ItemStack icon = new ItemStack(type == LinkType.Previous ? Items.ARROW : Items.SPECTRAL_ARROW);
         icon.set(net.minecraft.core.component.DataComponents.CUSTOM_NAME, Component.literal(type == LinkType.Previous ? "Prev" : "Next"));
-        return LinkedPageButton.builder().display(icon).linkType(type).build();
+        return GooeyButton.builder()
+                .display(icon)
+                .onClick(action -> UIManager.openUIForcefully((ServerPlayer) action.getPlayer(), pages.page(targetIndex)))
+                .build();
     }
 
-    private static GooeyButton buildFilterButton(ServerPlayer opener, int radius, @Nullable String filter) {
+    private static GooeyButton buildFilterButton(ServerPlayer opener, @Nullable String filter, Reopen reopen) {
         // shows current filter; clicking clears if filter active
         ItemStack icon = new ItemStack(filter == null ? Items.PAPER : Items.BARRIER);
         Component name = (filter == null)
@@ -228,7 +355,7 @@ public final class TileFinderServerUI {
             ServerPlayer sp = (ServerPlayer) action.getPlayer();
             // reopen with cleared filter if one was active; otherwise no-op
             if (filter != null) {
-                open(sp, radius, null);
+                reopen.open(sp, null);
             }
         };
         return GooeyButton.builder().display(icon).onClick(click).build();
@@ -257,15 +384,17 @@ public final class TileFinderServerUI {
     /**
      * Top-level button representing a block type.
      */
-    private static GooeyButton buildTopLevelButton(ServerPlayer player, int radius, @Nullable String filter, Block block, List<BlockPos> positions) {
-        ItemStack display = new ItemStack(block.asItem());
-        int count = positions.size();
-        String label = count + "x " + getPrettyName(block);
+    private static GooeyButton buildTopLevelButton(ServerPlayer player, int radius, @Nullable String filter, BlockGroup group, boolean byTickCost, Reopen reopen) {
+        long[] positions = group.positions();
+        ItemStack display = new ItemStack(group.block().asItem());
+        int count = positions.length;
+        String label = count + "x " + group.name();
         if (count > 1) label += " (click)";
         Component nameComp = Component.literal(label).withStyle(s -> s.withItalic(false).withColor(ChatFormatting.AQUA));
         List<Component> lore = new ArrayList<>();
-        Component status = statusForComponent(player, positions.isEmpty()?player.blockPosition():positions.get(0));
+        Component status = statusForComponent(player, BlockPos.of(positions[0]));
         if (!status.getString().isEmpty()) lore.add(status);
+        if (group.sampled()) lore.add(tickCostLore(group.tickMicros()));
         setNameAndLore(display, nameComp, lore);
 
         Consumer<ButtonAction> click = action -> {
@@ -274,10 +403,10 @@ public final class TileFinderServerUI {
                 // Shift from top-level: start a persistent path to nearest instance (no teleport)
                 ServerPathHighlighter.highlightPath(sp, getNearest(sp, positions));
             } else {
-                if (positions.size() <= 1) {
-                    ServerPathHighlighter.highlightPathForDuration(sp, positions.get(0), 60); // temp 3s
+                if (positions.length <= 1) {
+                    ServerPathHighlighter.highlightPathForDuration(sp, BlockPos.of(positions[0]), 60); // temp 3s
                 } else {
-                    Page first = buildPositionPages(sp, radius, filter, block, positions);
+                    Page first = buildPositionPages(sp, radius, filter, group, byTickCost, reopen);
                     UIManager.openUIForcefully(sp, first);
                 }
             }
@@ -289,39 +418,37 @@ public final class TileFinderServerUI {
     // ----------------------------------------------------------------------------------------------------
     // Nested per-position pages
     // ----------------------------------------------------------------------------------------------------
-    private static Page buildPositionPages(ServerPlayer opener, int radius, @Nullable String filter, Block block, List<BlockPos> positions) {
-        // sort by distance from opener
-        BlockPos from = opener.blockPosition();
-        List<BlockPos> sorted = new ArrayList<>(positions);
-        sorted.sort(Comparator.comparingDouble(p -> p.distSqr(from)));
+    private static Page buildPositionPages(ServerPlayer opener, int radius, @Nullable String filter, BlockGroup group, boolean byTickCost, Reopen reopen) {
+        // sort by distance from opener, or costliest first when the list is sorted by tick cost
+        long[] sorted = (byTickCost && group.sampled())
+                ? sortByTickCost(group.positions(), group.costs())
+                : sortByDistance(group.positions(), opener.blockPosition());
 
         final int pageSize = 5 * 9; // keep same layout
-        int totalPages = (int) Math.ceil(sorted.size() / (double) pageSize);
-        List<LinkedPage> pages = new ArrayList<>(totalPages);
+        int totalPages = (int) Math.ceil(sorted.length / (double) pageSize);
 
         ItemStack filler = new ItemStack(Items.LIGHT_GRAY_STAINED_GLASS_PANE);
         filler.set(net.minecraft.core.component.DataComponents.CUSTOM_NAME, Component.literal(" "));
 
-        for (int pageIndex = 0; pageIndex < totalPages; pageIndex++) {
+        LazyPageChain chain = new LazyPageChain(totalPages, (pages, pageIndex) -> {
             int fromIdx = pageIndex * pageSize;
-            int toIdx = Math.min(sorted.size(), fromIdx + pageSize);
-            List<BlockPos> slice = sorted.subList(fromIdx, toIdx);
+            int toIdx = Math.min(sorted.length, fromIdx + pageSize);
 
             ChestTemplate.Builder tmpl = ChestTemplate.builder(6);
             int slot = 0;
-            for (BlockPos pos : slice) {
-                tmpl.set(slot++, buildPositionButton(opener, block, pos));
+            for (int i = fromIdx; i < toIdx; i++) {
+                tmpl.set(slot++, buildPositionButton(opener, group, BlockPos.of(sorted[i])));
             }
             for (; slot < pageSize; slot++) {
                 tmpl.set(slot, GooeyButton.of(filler));
             }
 
-            // nav row: back to main at slot 45; prev/next at 48/50? Actually reuse prev/next outer; we put Back middle
+            // nav row: back to main at slot 45; prev at 49, next at 52
             int rowStart = pageSize;
-            tmpl.set(rowStart + 0, buildBackButton(opener, radius, filter));
-            tmpl.set(rowStart + 4, (pageIndex == 0) ? GooeyButton.of(filler) : buildNavButton(LinkType.Previous));
-            tmpl.set(rowStart + 7, (pageIndex == totalPages - 1) ? GooeyButton.of(filler) : buildNavButton(LinkType.Next));
-            tmpl.set(rowStart + 8, buildHelpButtonNested(opener, block, radius, filter));
+            tmpl.set(rowStart + 0, buildBackButton(opener, filter, reopen));
+            tmpl.set(rowStart + 4, (pageIndex == 0) ? GooeyButton.of(filler) : buildNavButton(LinkType.Previous, pages, pageIndex - 1));
+            tmpl.set(rowStart + 7, (pageIndex == totalPages - 1) ? GooeyButton.of(filler) : buildNavButton(LinkType.Next, pages, pageIndex + 1));
+            tmpl.set(rowStart + 8, buildHelpButtonNested(opener, group.block(), radius, filter));
             for (int i = 0; i < 9; i++) {
                 int navSlot = rowStart + i;
                 if (i == 0 || i == 4 || i == 7 || i == 8) continue;
@@ -329,22 +456,13 @@ public final class TileFinderServerUI {
             }
 
             Component title = (totalPages > 1)
-                    ? Component.literal(getPrettyName(block) + " {current}/{total}")
-                    : Component.literal(getPrettyName(block));
-
-            LinkedPage page = LinkedPage.builder().template(tmpl.build()).title(title).build();
-            pages.add(page);
-        }
+                    ? Component.literal(group.name() + " " + (pageIndex + 1) + "/" + totalPages)
+                    : Component.literal(group.name());
 
-        // link pages
-        for (int i = 0; i < pages.size(); i++) {
-            LinkedPage prev = (i > 0) ? pages.get(i - 1) : null;
-            LinkedPage next = (i < pages.size() - 1) ? pages.get(i + 1) : null;
-            pages.get(i).setPrevious(prev);
-            pages.get(i).setNext(next);
-        }
+            return GooeyPage.builder().template(tmpl.build()).title(title).build();
+        });
 
-        return pages.get(0);
+        return chain.page(0);
     }
 
     private static GooeyButton buildHelpButtonNested(ServerPlayer opener, Block block, int radius, @Nullable String filter) {
@@ -366,65 +484,30 @@ public final class TileFinderServerUI {
         return GooeyButton.builder().display(icon).onClick(click).build();
     }
 
-    private static GooeyButton buildBackButton(ServerPlayer opener, int radius, @Nullable String filter) {
+    private static GooeyButton buildBackButton(ServerPlayer opener, @Nullable String filter, Reopen reopen) {
         ItemStack icon = new ItemStack(Items.BOOK);
         Component nameComp = Component.literal("Back").withStyle(s -> s.withItalic(false).withColor(ChatFormatting.YELLOW));
         List<Component> lore = new ArrayList<>();
         lore.add(Component.literal("Back to block list").withStyle(s -> s.withItalic(false).withColor(ChatFormatting.GRAY)));
         setNameAndLore(icon, nameComp, lore);
-        return GooeyButton.builder().display(icon).onClick(action -> open(opener, radius, filter)).build();
+        return GooeyButton.builder().display(icon).onClick(action -> reopen.open(opener, filter)).build();
     }
 
     private static Component statusForComponent(ServerPlayer player, BlockPos pos) {
-        String summary = statusSummary(player, pos);
+        String summary = StatusProbes.summary(player.serverLevel(), pos);
         if (summary.isEmpty()) return Component.empty();
         return Component.literal(summary).withStyle(s -> s.withItalic(false).withColor(ChatFormatting.DARK_GRAY));
     }
 
-    private static String statusSummary(ServerPlayer player, BlockPos pos) {
-        ServerLevel level = player.serverLevel();
-        BlockEntity be = level.getBlockEntity(pos);
-        if (be == null) return "";
-        CompoundTag tag = be.saveWithoutMetadata(level.registryAccess());
-        // heuristics across common vanilla keys
-        int cook = getShortOrInt(tag, "cookTime", "cooking_time_spent");
-        int cookTotal = getShortOrInt(tag, "cookTimeTotal", "cooking_total_time");
-        int lit = getShortOrInt(tag, "BurnTime", "lit_time_remaining", "lit_time");
-        int litTotal = getShortOrInt(tag, "CookTime", "lit_total_time");
-        if (cookTotal > 0) {
-            int pct = (int)Math.round((cook / (double)cookTotal) * 100.0);
-            return "Progress: " + pct + "%";
-        }
-        if (litTotal > 0) {
-            int pct = (int)Math.round((lit / (double)litTotal) * 100.0);
-            return "Fuel: " + pct + "%";
-        }
-        // Inventory size fallback
-        if (tag.contains("Items")) {
-            ListTag items = tag.getList("Items", 10); // compounds
-            return "Slots: " + items.size();
-        }
-        return "";
-    }
-
-    private static int getShortOrInt(CompoundTag tag, String... keys) {
-        for (String k : keys) {
-            if (tag.contains(k)) {
-                try { return tag.getInt(k); } catch (Throwable t) {}
-                try { return tag.getShort(k); } catch (Throwable t) {}
-            }
-        }
-        return 0;
-    }
-
-    private static GooeyButton buildPositionButton(ServerPlayer opener, Block block, BlockPos pos) {
-        ItemStack icon = new ItemStack(block.asItem());
+    private static GooeyButton buildPositionButton(ServerPlayer opener, BlockGroup group, BlockPos pos) {
+        ItemStack icon = new ItemStack(group.block().asItem());
         double dist = Math.sqrt(pos.distSqr(opener.blockPosition()));
-        String label = String.format(Locale.ROOT, "%s @ %d %d %d (%.0fm)", getPrettyName(block), pos.getX(), pos.getY(), pos.getZ(), dist);
+        String label = String.format(Locale.ROOT, "%s @ %d %d %d (%.0fm)", group.name(), pos.getX(), pos.getY(), pos.getZ(), dist);
         Component nameComp = Component.literal(label).withStyle(s -> s.withItalic(false).withColor(ChatFormatting.GOLD));
         List<Component> lore = new ArrayList<>();
         Component status = statusForComponent(opener, pos);
         if (!status.getString().isEmpty()) lore.add(status);
+        if (group.costs() != null && group.costs().nanos().containsKey(pos.asLong())) lore.add(tickCostLore(group.costs().microsPerTick(pos.asLong())));
         setNameAndLore(icon, nameComp, lore);
 
         Consumer<ButtonAction> click = action -> {
@@ -440,14 +523,41 @@ public final class TileFinderServerUI {
         return GooeyButton.builder().display(icon).onClick(click).build();
     }
 
-    private static BlockPos getNearest(ServerPlayer player, List<BlockPos> positions) {
+    private static BlockPos getNearest(ServerPlayer player, long[] positions) {
         BlockPos from = player.blockPosition();
-        return positions.stream().min(Comparator.comparingDouble(p -> p.distSqr(from))).orElse(positions.isEmpty() ? null : positions.get(0));
+        long best = positions[0];
+        long bestDist = distSqr(best, from);
+        for (int i = 1; i < positions.length; i++) {
+            long d = distSqr(positions[i], from);
+            if (d < bestDist) {
+                best = positions[i];
+                bestDist = d;
+            }
+        }
+        return BlockPos.of(best);
+    }
+
+    private static long[] sortByTickCost(long[] positions, TickProfiler.Result costs) {
+        long[] sorted = positions.clone();
+        LongArrays.quickSort(sorted, (a, b) -> Double.compare(costs.microsPerTick(b), costs.microsPerTick(a)));
+        return sorted;
+    }
+
+    private static long[] sortByDistance(long[] positions, BlockPos from) {
+        long[] sorted = positions.clone();
+        LongArrays.quickSort(sorted, (a, b) -> Long.compare(distSqr(a, from), distSqr(b, from)));
+        return sorted;
+    }
+
+    private static long distSqr(long packed, BlockPos from) {
+        long dx = BlockPos.getX(packed) - from.getX();
+        long dy = BlockPos.getY(packed) - from.getY();
+        long dz = BlockPos.getZ(packed) - from.getZ();
+        return dx * dx + dy * dy + dz * dz;
     }
 
-    private static ResourceLocation getBlockId(ServerPlayer player, Block block) {
-        RegistryAccess access = player.registryAccess();
-        return access.registryOrThrow(Registries.BLOCK).getKey(block);
+    private static ResourceLocation getBlockId(Block block) {
+        return BuiltInRegistries.BLOCK.getKey(block);
     }
 
     private static String getPrettyName(Block block) {
@@ -0,0 +1,271 @@
+package com.maxleiter.tilefinder.server;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.maxleiter.tilefinder.ServerConfig;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.Util;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.storage.LevelResource;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts every saved block entity of a dimension by type and by mod, reading region files through
+ * {@link RegionScanner} on a dedicated fork-join pool.
+ * <p>
+ * {@link ServerConfig#auditThreads} workers each take the next region file from a shared counter as soon as
+ * they finish one, so that many files at most are open at once and no worker waits on a slower one. Files
+ * are read with positional channel reads rather than mapped, because mappings stay reserved until they are
+ * garbage collected and a large world would pile them up. Each file's chunk table is split into slices,
+ * so idle workers steal chunks from files still being read once the list runs dry. Only one audit runs at
+ * a time. Results are written as CSV and JSON under {@code <world>/tilefinder/}.
+ */
+final class WorldAudit {
+    private WorldAudit() {}
+
+    private static final int CHUNKS_PER_SLICE = 256;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+
+    record Report(String dimension, @Nullable String filter, int regions, RegionScanner.ReadStats stats,
+                  List<Count> byType, List<Count> byMod, long total, long millis, Path csv, Path json) {}
+
+    record Count(String key, long count) {}
+
+    /** Per-task tallies, merged pairwise as tasks join. */
+    private static final class Tally {
+        final Object2IntOpenHashMap<String> byType = new Object2IntOpenHashMap<>();
+        RegionScanner.ReadStats stats = RegionScanner.ReadStats.EMPTY;
+
+        Tally merge(Tally other) {
+            for (Object2IntMap.Entry<String> e : other.byType.object2IntEntrySet()) byType.addTo(e.getKey(), e.getIntValue());
+            stats = stats.plus(other.stats);
+            return this;
+        }
+    }
+
+    /**
+     * Start an audit of level's saved region files, or return null if one is already running. Only the
+     * region folder and world path are read from the server before work moves off-thread.
+     */
+    static @Nullable CompletableFuture<Report> start(ServerLevel level, @Nullable String filter) {
+        if (!RUNNING.compareAndSet(false, true)) return null;
+        String dimension = level.dimension().location().toString();
+        Path folder = RegionScanner.regionFolder(level);
+        Path reportDir = level.getServer().getWorldPath(LevelResource.ROOT).resolve("tilefinder");
+        return CompletableFuture.supplyAsync(() -> run(dimension, folder, reportDir, filter), Util.ioPool())
+                .whenComplete((report, error) -> RUNNING.set(false));
+    }
+
+    private static Report run(String dimension, Path folder, Path reportDir, @Nullable String filter) {
+        long started = System.nanoTime();
+        List<RegionScanner.RegionFile> files;
+        try {
+            files = RegionScanner.list(folder);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not list " + folder, e);
+        }
+        Map<String, Block> blocks = RegionScanner.blocksByType();
+        TypeFilter typeFilter = new TypeFilter(blocks, filter);
+        AtomicInteger next = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(ServerConfig.auditThreads);
+        Tally tally = new Tally();
+        try {
+            List<ForkJoinTask<Tally>> workers = new ArrayList<>();
+            for (int i = 0; i < ServerConfig.auditThreads; i++) workers.add(pool.submit(new Worker(files, next, typeFilter)));
+            for (ForkJoinTask<Tally> worker : workers) tally.merge(worker.join());
+        } finally {
+            pool.shutdown();
+        }
+
+        Object2IntOpenHashMap<String> byMod = new Object2IntOpenHashMap<>();
+        long total = 0;
+        for (Object2IntMap.Entry<String> e : tally.byType.object2IntEntrySet()) {
+            ResourceLocation id = ResourceLocation.tryParse(e.getKey());
+            byMod.addTo(id == null ? "?" : id.getNamespace(), e.getIntValue());
+            total += e.getIntValue();
+        }
+        List<Count> types = sorted(tally.byType);
+        List<Count> mods = sorted(byMod);
+        long millis = (System.nanoTime() - started) / 1_000_000L;
+
+        String base = "audit-" + dimension.replace(':', '_').replace('/', '_') + "-" + LocalDateTime.now().format(FILE_TIME);
+        Path csv = reportDir.resolve(base + ".csv");
+        Path json = reportDir.resolve(base + ".json");
+        Report report = new Report(dimension, filter, files.size(), tally.stats, types, mods, total, millis, csv, json);
+        try {
+            Files.createDirectories(reportDir);
+            writeCsv(report, blocks);
+            writeJson(report);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write audit report to " + reportDir, e);
+        }
+        return report;
+    }
+
+    private static List<Count> sorted(Object2IntMap<String> counts) {
+        List<Count> out = new ArrayList<>(counts.size());
+        for (Object2IntMap.Entry<String> e : counts.object2IntEntrySet()) out.add(new Count(e.getKey(), e.getIntValue()));
+        out.sort(Comparator.comparingLong(Count::count).reversed().thenComparing(Count::key));
+        return out;
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Fork-join tasks
+    // ----------------------------------------------------------------------------------------------------
+    /** Decides per block entity type id whether it passes the audit filter, caching each answer. */
+    private static final class TypeFilter {
+        private final Map<String, Block> blocks;
+        private final @Nullable String filter;
+        private final Map<String, Boolean> cache = new ConcurrentHashMap<>();
+
+        TypeFilter(Map<String, Block> blocks, @Nullable String filter) {
+            this.blocks = blocks;
+            this.filter = filter;
+        }
+
+        boolean accepts(String typeId) {
+            if (filter == null) return true;
+            return cache.computeIfAbsent(typeId, id -> {
+                ResourceLocation key = ResourceLocation.tryParse(id);
+                if (key != null && TileFinderServerUI.matchesFilter(key, "", filter)) return true;
+                Block block = blocks.get(id);
+                return block != null && TileFinderServerUI.matchesFilter(BuiltInRegistries.BLOCK.getKey(block), block.getName().getString(), filter);
+            });
+        }
+    }
+
+    /** Reads region files one at a time, taking the next unclaimed one until none are left. */
+    private static final class Worker extends RecursiveTask<Tally> {
+        private final List<RegionScanner.RegionFile> files;
+        private final AtomicInteger next;
+        private final TypeFilter filter;
+
+        Worker(List<RegionScanner.RegionFile> files, AtomicInteger next, TypeFilter filter) {
+            this.files = files;
+            this.next = next;
+            this.filter = filter;
+        }
+
+        @Override
+        protected Tally compute() {
+            Tally tally = new Tally();
+            for (int i; (i = next.getAndIncrement()) < files.size(); ) tally.merge(readRegion(files.get(i)));
+            return tally;
+        }
+
+        private Tally readRegion(RegionScanner.RegionFile file) {
+            try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+                RegionScanner.RegionBytes bytes = RegionScanner.channel(channel);
+                if (bytes == null) return new Tally();
+                int[] locations = RegionScanner.locations(bytes);
+                return new Slice(file, bytes, locations, 0, RegionScanner.CHUNKS_PER_REGION, filter).compute();
+            } catch (IOException e) {
+                e.printStackTrace();
+                return new Tally();
+            }
+        }
+    }
+
+    private static final class Slice extends RecursiveTask<Tally> {
+        private final RegionScanner.RegionFile file;
+        private final RegionScanner.RegionBytes bytes;
+        private final int[] locations;
+        private final int from, to;
+        private final TypeFilter filter;
+
+        Slice(RegionScanner.RegionFile file, RegionScanner.RegionBytes bytes, int[] locations, int from, int to, TypeFilter filter) {
+            this.file = file;
+            this.bytes = bytes;
+            this.locations = locations;
+            this.from = from;
+            this.to = to;
+            this.filter = filter;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > CHUNKS_PER_SLICE) {
+                int mid = (from + to) >>> 1;
+                Slice left = new Slice(file, bytes, locations, from, mid, filter);
+                left.fork();
+                Tally right = new Slice(file, bytes, locations, mid, to, filter).compute();
+                return left.join().merge(right);
+            }
+            Tally tally = new Tally();
+            tally.stats = RegionScanner.read(file, bytes, locations, from, to, (cx, cz) -> true, (cx, cz, blockEntities) -> count(blockEntities, tally));
+            return tally;
+        }
+
+        private void count(ListTag blockEntities, Tally tally) {
+            for (int i = 0; i < blockEntities.size(); i++) {
+                String type = blockEntities.getCompound(i).getString("id");
+                if (!type.isEmpty() && filter.accepts(type)) tally.byType.addTo(type, 1);
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------
+    // Report files
+    // ----------------------------------------------------------------------------------------------------
+    private static void writeCsv(Report report, Map<String, Block> blocks) throws IOException {
+        try (Writer out = Files.newBufferedWriter(report.csv(), StandardCharsets.UTF_8)) {
+            out.write("type,mod,block,count\n");
+            for (Count c : report.byType()) {
+                ResourceLocation id = ResourceLocation.tryParse(c.key());
+                Block block = blocks.get(c.key());
+                out.write(c.key() + "," + (id == null ? "" : id.getNamespace()) + ","
+                        + (block == null ? "" : BuiltInRegistries.BLOCK.getKey(block)) + "," + c.count() + "\n");
+            }
+        }
+    }
+
+    private static void writeJson(Report report) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("dimension", report.dimension());
+        if (report.filter() != null) root.addProperty("filter", report.filter());
+        root.addProperty("regions", report.regions());
+        root.addProperty("chunks", report.stats().chunks());
+        root.addProperty("unreadableChunks", report.stats().unreadable());
+        root.addProperty("total", report.total());
+        root.addProperty("millis", report.millis());
+        root.add("byType", toJson(report.byType()));
+        root.add("byMod", toJson(report.byMod()));
+        try (Writer out = Files.newBufferedWriter(report.json(), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(root, out);
+        }
+    }
+
+    private static JsonObject toJson(List<Count> counts) {
+        // insertion order is kept, so the object lists keys by descending count
+        JsonObject out = new JsonObject();
+        for (Count c : counts) out.addProperty(c.key(), c.count());
+        return out;
+    }
+}